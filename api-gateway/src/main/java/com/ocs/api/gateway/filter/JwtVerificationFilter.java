@@ -0,0 +1,133 @@
+package com.ocs.api.gateway.filter;
+
+import com.ocs.api.gateway.security.InternalHeaderSigner;
+import com.ocs.api.gateway.security.JwksTokenVerifier;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Verifies the access-token cookie at the edge. Invalid tokens on protected paths are
+ * rejected with 401 before routing; verified identities are forwarded as signed headers
+ * when {@link InternalHeaderSigner} is enabled, otherwise the backend re-verifies the cookie.
+ * Keys come from auth-service's JWKS and are fetched reactively, so the event loop never blocks.
+ */
+@Component
+public class JwtVerificationFilter implements GlobalFilter, Ordered {
+
+    public static final String VERIFIED_USERNAME_ATTRIBUTE = JwtVerificationFilter.class.getName() + ".username";
+
+    private static final String ROLE_CLAIM = "role";
+    private static final String USER_ID_CLAIM = "uid";
+
+    private final InternalHeaderSigner headerSigner;
+    private final JwksTokenVerifier tokenVerifier;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Value("${application.security.jwt.cookie-name}")
+    private String tokenCookieName;
+
+    @Value("${application.security.gateway.protected-paths:/api/user/**,/api/admin/**}")
+    private String[] protectedPaths;
+
+    @Value("${application.security.gateway.edge-verification:true}")
+    private boolean enabled;
+
+    public JwtVerificationFilter(InternalHeaderSigner headerSigner, JwksTokenVerifier tokenVerifier) {
+        this.headerSigner = headerSigner;
+        this.tokenVerifier = tokenVerifier;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        // Never let clients supply their own identity headers
+        ServerHttpRequest.Builder request = exchange.getRequest().mutate()
+                .headers(headers -> Arrays.stream(InternalHeaderSigner.ALL_HEADERS).forEach(headers::remove));
+        if (!enabled) {
+            return chain.filter(exchange.mutate().request(request.build()).build());
+        }
+
+        boolean protectedPath = isProtected(exchange.getRequest().getPath().value());
+        HttpCookie cookie = exchange.getRequest().getCookies().getFirst(tokenCookieName);
+        if (cookie == null || cookie.getValue().isEmpty()) {
+            return unauthenticated(exchange, chain, request, protectedPath);
+        }
+        return tokenVerifier.verify(cookie.getValue())
+                .filter(this::isComplete)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(claims -> claims.isPresent()
+                        ? authenticated(exchange, chain, request, claims.get())
+                        : unauthenticated(exchange, chain, request, protectedPath));
+    }
+
+    private Mono<Void> authenticated(ServerWebExchange exchange, GatewayFilterChain chain,
+                                     ServerHttpRequest.Builder request, Claims claims) {
+        String username = claims.getSubject();
+        String role = claims.get(ROLE_CLAIM, String.class);
+        Object userId = claims.get(USER_ID_CLAIM);
+        String userIdValue = userId != null ? userId.toString() : null;
+        String tokenId = claims.getId();
+        long expiresAt = claims.getExpiration().toInstant().getEpochSecond();
+
+        if (headerSigner.isEnabled()) {
+            request.headers(headers -> {
+                headers.set(InternalHeaderSigner.USERNAME_HEADER, username);
+                headers.set(InternalHeaderSigner.ROLE_HEADER, role);
+                if (userIdValue != null) {
+                    headers.set(InternalHeaderSigner.USER_ID_HEADER, userIdValue);
+                }
+                if (tokenId != null) {
+                    headers.set(InternalHeaderSigner.TOKEN_ID_HEADER, tokenId);
+                }
+                headers.set(InternalHeaderSigner.EXPIRES_HEADER, Long.toString(expiresAt));
+                headers.set(InternalHeaderSigner.SIGNATURE_HEADER,
+                        headerSigner.sign(username, role, userIdValue, tokenId, expiresAt));
+            });
+        }
+        exchange.getAttributes().put(VERIFIED_USERNAME_ATTRIBUTE, username);
+        return chain.filter(exchange.mutate().request(request.build()).build());
+    }
+
+    private Mono<Void> unauthenticated(ServerWebExchange exchange, GatewayFilterChain chain,
+                                       ServerHttpRequest.Builder request, boolean protectedPath) {
+        if (protectedPath) {
+            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+            return exchange.getResponse().setComplete();
+        }
+        return chain.filter(exchange.mutate().request(request.build()).build());
+    }
+
+    @Override
+    public int getOrder() {
+        // Run before routing and before any per-route filters such as rate limiting
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+
+    private boolean isComplete(Claims claims) {
+        return claims.getSubject() != null
+                && claims.get(ROLE_CLAIM) != null
+                && claims.getExpiration() != null;
+    }
+
+    private boolean isProtected(String path) {
+        for (String pattern : protectedPaths) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
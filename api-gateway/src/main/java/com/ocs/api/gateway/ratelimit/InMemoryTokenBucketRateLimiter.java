@@ -0,0 +1,162 @@
+package com.ocs.api.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.validation.constraints.Min;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Token-bucket limiter kept in gateway memory, for single-node deployments. Each key's
+ * bucket is an immutable snapshot swapped with compare-and-set, so concurrent requests
+ * never block the event loop. Limits are set per route through the
+ * {@code in-memory-rate-limiter.*} arguments of the {@code RequestRateLimiter} filter;
+ * routes without arguments get the defaults. A key made of several parts (see
+ * {@link PrincipalAndAddressKeyResolver}) is charged against one bucket per part, all with
+ * the route's limits, and is only allowed when every bucket has room. Replicated gateways
+ * should use a shared
+ * {@link org.springframework.cloud.gateway.filter.ratelimit.RateLimiter} such as the
+ * built-in Redis one instead.
+ */
+@Component
+@ConditionalOnProperty(name = "application.security.rate-limit.backend", havingValue = "memory", matchIfMissing = true)
+public class InMemoryTokenBucketRateLimiter extends AbstractRateLimiter<InMemoryTokenBucketRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "in-memory-rate-limiter";
+
+    private static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    private static final String RETRY_AFTER_HEADER = "Retry-After";
+
+    private final Config defaultConfig;
+
+    // Idle buckets refill to full anyway, so evicting them loses nothing once they are older than a refill
+    private final Cache<String, AtomicReference<Bucket>> buckets;
+
+    public InMemoryTokenBucketRateLimiter(
+            ConfigurationService configurationService,
+            @Value("${application.security.rate-limit.default-replenish-rate:10}") int defaultReplenishRate,
+            @Value("${application.security.rate-limit.default-burst-capacity:20}") int defaultBurstCapacity,
+            @Value("${application.security.rate-limit.max-keys:100000}") long maxKeys,
+            @Value("${application.security.rate-limit.idle-expiry:5m}") Duration idleExpiry) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.defaultConfig = new Config().setReplenishRate(defaultReplenishRate).setBurstCapacity(defaultBurstCapacity);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleExpiry)
+                .build();
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        int burstCapacity = Math.max(config.getBurstCapacity(), config.getRequestedTokens());
+        int separator = id.indexOf(PrincipalAndAddressKeyResolver.KEY_SEPARATOR);
+        if (separator < 0) {
+            Bucket bucket = take(bucket(routeId, id, burstCapacity), config, burstCapacity);
+            return Mono.just(response(config, bucket));
+        }
+
+        AtomicReference<Bucket> addressBucket = bucket(routeId, id.substring(0, separator), burstCapacity);
+        Bucket address = take(addressBucket, config, burstCapacity);
+        if (!address.allowed()) {
+            return Mono.just(response(config, address));
+        }
+        Bucket principal = take(bucket(routeId, id.substring(separator + 1), burstCapacity), config, burstCapacity);
+        if (!principal.allowed()) {
+            // The request is not forwarded, so it must not use up the address's share either
+            refund(addressBucket, config, burstCapacity);
+            return Mono.just(response(config, principal));
+        }
+        return Mono.just(response(config, address.tokens() < principal.tokens() ? address : principal));
+    }
+
+    private AtomicReference<Bucket> bucket(String routeId, String key, int burstCapacity) {
+        return buckets.get(routeId + '|' + key,
+                k -> new AtomicReference<>(new Bucket(burstCapacity, System.nanoTime(), true)));
+    }
+
+    private Bucket take(AtomicReference<Bucket> bucket, Config config, int burstCapacity) {
+        while (true) {
+            long now = System.nanoTime();
+            Bucket current = bucket.get();
+            double elapsedSeconds = Math.max(0, now - current.refilledAt()) / 1_000_000_000d;
+            double tokens = Math.min(burstCapacity, current.tokens() + elapsedSeconds * config.getReplenishRate());
+            boolean allowed = tokens >= config.getRequestedTokens();
+            Bucket next = new Bucket(allowed ? tokens - config.getRequestedTokens() : tokens,
+                    Math.max(now, current.refilledAt()), allowed);
+            if (bucket.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    private void refund(AtomicReference<Bucket> bucket, Config config, int burstCapacity) {
+        bucket.updateAndGet(current -> new Bucket(
+                Math.min(burstCapacity, current.tokens() + config.getRequestedTokens()), current.refilledAt(), current.allowed()));
+    }
+
+    private Response response(Config config, Bucket bucket) {
+        return new Response(bucket.allowed(), headers(config, bucket, bucket.allowed()));
+    }
+
+    private Map<String, String> headers(Config config, Bucket bucket, boolean allowed) {
+        if (allowed) {
+            return Map.of(REMAINING_HEADER, String.valueOf((long) bucket.tokens()));
+        }
+        double missing = config.getRequestedTokens() - bucket.tokens();
+        long retryAfter = Math.max(1, (long) Math.ceil(missing / config.getReplenishRate()));
+        return Map.of(REMAINING_HEADER, "0", RETRY_AFTER_HEADER, String.valueOf(retryAfter));
+    }
+
+    private record Bucket(double tokens, long refilledAt, boolean allowed) {
+    }
+
+    @Validated
+    public static class Config {
+
+        @Min(1)
+        private int replenishRate = 10;
+
+        @Min(1)
+        private int burstCapacity = 20;
+
+        @Min(1)
+        private int requestedTokens = 1;
+
+        public int getReplenishRate() {
+            return replenishRate;
+        }
+
+        public Config setReplenishRate(int replenishRate) {
+            this.replenishRate = replenishRate;
+            return this;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public Config setBurstCapacity(int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+            return this;
+        }
+
+        public int getRequestedTokens() {
+            return requestedTokens;
+        }
+
+        public Config setRequestedTokens(int requestedTokens) {
+            this.requestedTokens = requestedTokens;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.ocs.api.gateway.ratelimit;
+
+import com.ocs.api.gateway.filter.JwtVerificationFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Rate-limit key for a request: the client address, followed by the username verified at
+ * the edge when there is one. {@link InMemoryTokenBucketRateLimiter} charges every part of
+ * the key, so a request must fit both the per-address and the per-principal bucket. Parts
+ * are prefixed so a username can never share a bucket with an address, and the address
+ * comes first because it can never contain the separator.
+ */
+@Component
+public class PrincipalAndAddressKeyResolver implements KeyResolver {
+
+    public static final char KEY_SEPARATOR = '|';
+
+    private final RemoteAddressResolver addressResolver;
+
+    public PrincipalAndAddressKeyResolver(@Value("${application.security.rate-limit.trusted-proxies:0}") int trustedProxies) {
+        // Only trust X-Forwarded-For entries added by our own load balancers
+        this.addressResolver = trustedProxies > 0
+                ? XForwardedRemoteAddressResolver.maxTrustedIndex(trustedProxies)
+                : new RemoteAddressResolver() {
+                };
+    }
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        String username = exchange.getAttribute(JwtVerificationFilter.VERIFIED_USERNAME_ATTRIBUTE);
+        String principalKey = username != null ? "user:" + username : null;
+        InetSocketAddress address = addressResolver.resolve(exchange);
+        if (address == null) {
+            return Mono.justOrEmpty(principalKey);
+        }
+        String addressKey = "addr:" + (address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString());
+        return Mono.just(principalKey != null ? addressKey + KEY_SEPARATOR + principalKey : addressKey);
+    }
+}
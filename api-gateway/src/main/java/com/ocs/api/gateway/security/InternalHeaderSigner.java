@@ -0,0 +1,75 @@
+package com.ocs.api.gateway.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+/**
+ * Signs the identity headers the gateway forwards after verifying a token at the edge.
+ * Backends holding the same secret can trust these headers instead of re-verifying the JWT.
+ * Off unless {@code forward-identity-headers} is set; the secret then has to be supplied
+ * from the environment or the config server, and startup fails without it.
+ */
+@Component
+public class InternalHeaderSigner {
+
+    public static final String USERNAME_HEADER = "X-Auth-User";
+    public static final String ROLE_HEADER = "X-Auth-Role";
+    public static final String USER_ID_HEADER = "X-Auth-User-Id";
+    public static final String TOKEN_ID_HEADER = "X-Auth-Token-Id";
+    public static final String EXPIRES_HEADER = "X-Auth-Expires";
+    public static final String SIGNATURE_HEADER = "X-Auth-Signature";
+
+    public static final String[] ALL_HEADERS = {
+            USERNAME_HEADER, ROLE_HEADER, USER_ID_HEADER, TOKEN_ID_HEADER, EXPIRES_HEADER, SIGNATURE_HEADER
+    };
+
+    private static final String ALGORITHM = "HmacSHA256";
+    // Anyone holding the secret can claim any identity, so it must be at least as strong as the MAC
+    private static final int MIN_SECRET_LENGTH = 32;
+
+    private final SecretKeySpec key;
+
+    // Mac instances are not thread-safe; one per event-loop thread avoids both locking and re-init
+    private final ThreadLocal<Mac> mac = ThreadLocal.withInitial(this::newMac);
+
+    public InternalHeaderSigner(
+            @Value("${application.security.gateway.forward-identity-headers:false}") boolean enabled,
+            @Value("${application.security.gateway.header-secret:}") String secret) {
+        if (!enabled) {
+            this.key = null;
+            return;
+        }
+        if (secret == null || secret.length() < MIN_SECRET_LENGTH) {
+            throw new IllegalStateException("application.security.gateway.forward-identity-headers requires "
+                    + "application.security.gateway.header-secret of at least " + MIN_SECRET_LENGTH + " characters");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    public boolean isEnabled() {
+        return key != null;
+    }
+
+    public String sign(String username, String role, String userId, String tokenId, long expiresAt) {
+        String payload = username + '\n' + role + '\n' + (userId != null ? userId : "") + '\n'
+                + (tokenId != null ? tokenId : "") + '\n' + expiresAt;
+        byte[] signature = mac.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(ALGORITHM);
+            instance.init(key);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot initialise " + ALGORITHM, e);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.ocs.api.gateway.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Verifies tokens locally against auth-service's published key set. One parser per kid
+ * is kept in memory, so verification is a map lookup plus a signature check. The key set
+ * is fetched without blocking and re-fetched when it goes stale or an unknown kid shows up.
+ */
+@Component
+public class JwksTokenVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(JwksTokenVerifier.class);
+
+    private static final String TYPE_CLAIM = "typ";
+    private static final String FAMILY_CLAIM = "fam";
+    private static final String ACCESS_TYPE = "access";
+
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+    private final String jwksUri;
+    private final long refreshIntervalMillis;
+    private final long minRefreshIntervalMillis;
+
+    private volatile Map<String, JwtParser> parsers = Map.of();
+    private volatile long lastRefresh;
+    private final AtomicReference<Mono<Void>> inFlight = new AtomicReference<>();
+
+    public JwksTokenVerifier(
+            @LoadBalanced WebClient.Builder loadBalancedWebClientBuilder,
+            ObjectMapper objectMapper,
+            @Value("${application.security.jwt.jwks-uri}") String jwksUri,
+            @Value("${application.security.jwt.jwks-refresh-interval:5m}") Duration refreshInterval,
+            @Value("${application.security.jwt.jwks-min-refresh-interval:30s}") Duration minRefreshInterval) {
+        this.webClient = loadBalancedWebClientBuilder.build();
+        this.objectMapper = objectMapper;
+        this.jwksUri = jwksUri;
+        this.refreshIntervalMillis = refreshInterval.toMillis();
+        this.minRefreshIntervalMillis = minRefreshInterval.toMillis();
+    }
+
+    /**
+     * Emits the verified claims of an access token, or completes empty when the token is
+     * invalid or of another type, such as a refresh token.
+     */
+    public Mono<Claims> verify(String token) {
+        String kid = readKeyId(token);
+        if (kid == null) {
+            return Mono.empty();
+        }
+        if (System.currentTimeMillis() - lastRefresh > refreshIntervalMillis) {
+            // Stale key set: refresh in the background and keep serving the keys we have
+            refresh().subscribe();
+        }
+        JwtParser parser = parsers.get(kid);
+        Mono<JwtParser> resolved = parser != null
+                ? Mono.just(parser)
+                : refresh().then(Mono.fromSupplier(() -> parsers.get(kid)));
+        return resolved.flatMap(p -> Mono.justOrEmpty(parse(p, token)));
+    }
+
+    private Claims parse(JwtParser parser, String token) {
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            return isAccessToken(claims) ? claims : null;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean isAccessToken(Claims claims) {
+        Object type = claims.get(TYPE_CLAIM);
+        // Issued before the claim existed: only refresh tokens carry a family
+        return type != null ? ACCESS_TYPE.equals(type) : claims.get(FAMILY_CLAIM) == null;
+    }
+
+    private String readKeyId(String token) {
+        int end = token.indexOf('.');
+        if (end <= 0) {
+            return null;
+        }
+        try {
+            byte[] header = Base64.getUrlDecoder().decode(token.substring(0, end));
+            JsonNode kid = objectMapper.readTree(new String(header, StandardCharsets.UTF_8)).get("kid");
+            return kid != null ? kid.asText() : null;
+        } catch (IllegalArgumentException | IOException e) {
+            return null;
+        }
+    }
+
+    private Mono<Void> refresh() {
+        Mono<Void> current = inFlight.get();
+        if (current != null) {
+            return current;
+        }
+        // Unknown kids from forged tokens must not turn into a fetch per request
+        long now = System.currentTimeMillis();
+        if (now - lastRefresh < minRefreshIntervalMillis) {
+            return Mono.empty();
+        }
+        Mono<Void> fetch = webClient.get()
+                .uri(jwksUri)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .doOnNext(this::install)
+                .doOnError(e -> log.warn("Failed to fetch JWKS from {}: {}", jwksUri, e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .then()
+                .doFinally(signal -> inFlight.set(null))
+                .cache();
+        if (inFlight.compareAndSet(null, fetch)) {
+            lastRefresh = now;
+            return fetch;
+        }
+        Mono<Void> winner = inFlight.get();
+        return winner != null ? winner : Mono.empty();
+    }
+
+    private void install(JsonNode jwks) {
+        Map<String, JwtParser> updated = new HashMap<>();
+        for (JsonNode jwk : jwks.path("keys")) {
+            String kid = jwk.path("kid").asText(null);
+            try {
+                PublicKey key = toPublicKey(jwk);
+                if (kid != null && key != null) {
+                    updated.put(kid, Jwts.parserBuilder().setSigningKey(key).build());
+                }
+            } catch (GeneralSecurityException | IllegalArgumentException e) {
+                log.warn("Skipping unusable JWK {}: {}", kid, e.getMessage());
+            }
+        }
+        parsers = Map.copyOf(updated);
+        log.info("Loaded {} JWT verification keys", updated.size());
+    }
+
+    private static PublicKey toPublicKey(JsonNode jwk) throws GeneralSecurityException {
+        switch (jwk.path("kty").asText()) {
+            case "RSA":
+                return KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(
+                        unsigned(jwk.path("n").asText()), unsigned(jwk.path("e").asText())));
+            case "EC":
+                if (!"P-256".equals(jwk.path("crv").asText())) {
+                    return null;
+                }
+                AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+                parameters.init(new ECGenParameterSpec("secp256r1"));
+                ECPoint point = new ECPoint(unsigned(jwk.path("x").asText()), unsigned(jwk.path("y").asText()));
+                return KeyFactory.getInstance("EC").generatePublic(
+                        new ECPublicKeySpec(point, parameters.getParameterSpec(ECParameterSpec.class)));
+            default:
+                return null;
+        }
+    }
+
+    private static BigInteger unsigned(String base64Url) {
+        return new BigInteger(1, Base64.getUrlDecoder().decode(base64Url));
+    }
+}
@@ -0,0 +1,45 @@
+package com.ocs.api.gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryTokenBucketRateLimiterTests {
+
+    private static final String ROUTE = "AUTH-SERVICE";
+
+    // No replenishment worth speaking of during a test, two requests per bucket
+    private final InMemoryTokenBucketRateLimiter limiter =
+            new InMemoryTokenBucketRateLimiter(null, 1, 2, 1000, Duration.ofMinutes(5));
+
+    @Test
+    void principalIsLimitedAcrossAddresses() {
+        assertThat(allowed("addr:10.0.0.1|user:alice")).isTrue();
+        assertThat(allowed("addr:10.0.0.2|user:alice")).isTrue();
+        assertThat(allowed("addr:10.0.0.3|user:alice")).isFalse();
+    }
+
+    @Test
+    void addressIsLimitedAcrossPrincipals() {
+        assertThat(allowed("addr:10.0.0.1|user:alice")).isTrue();
+        assertThat(allowed("addr:10.0.0.1|user:bob")).isTrue();
+        assertThat(allowed("addr:10.0.0.1|user:carol")).isFalse();
+        assertThat(allowed("addr:10.0.0.1")).isFalse();
+    }
+
+    @Test
+    void rejectedPrincipalDoesNotUseUpTheAddress() {
+        assertThat(allowed("addr:10.0.0.1|user:alice")).isTrue();
+        assertThat(allowed("addr:10.0.0.2|user:alice")).isTrue();
+        assertThat(allowed("addr:10.0.0.3|user:alice")).isFalse();
+
+        assertThat(allowed("addr:10.0.0.3|user:bob")).isTrue();
+        assertThat(allowed("addr:10.0.0.3|user:bob")).isTrue();
+    }
+
+    private boolean allowed(String key) {
+        return limiter.isAllowed(ROUTE, key).block().isAllowed();
+    }
+}
@@ -0,0 +1,25 @@
+package com.ocs.auth.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    public static final String PASSWORD_UPGRADE_EXECUTOR = "passwordUpgradeExecutor";
+
+    // Upgrades are best effort: when the queue is full the task is dropped and retried on the next login
+    @Bean(name = PASSWORD_UPGRADE_EXECUTOR)
+    public ThreadPoolTaskExecutor passwordUpgradeExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("password-upgrade-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        return executor;
+    }
+}
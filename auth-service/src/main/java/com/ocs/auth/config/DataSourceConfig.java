@@ -0,0 +1,84 @@
+package com.ocs.auth.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One connection pool per database: the primary plus any configured read replicas. Every
+ * pool takes its settings from {@code spring.datasource.hikari.*} and reports its own
+ * {@code hikaricp.*} metrics, tagged with its pool name.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    // Zero while the replica has replayed everything it received, otherwise the age of the last replayed transaction
+    static final String POSTGRES_LAG_QUERY = "select case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 "
+            + "else extract(epoch from now() - pg_last_xact_replay_timestamp()) end";
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            DataSourceProperties properties,
+            Environment environment,
+            MeterRegistry meterRegistry,
+            ReadYourWritesTracker readYourWritesTracker,
+            @Value("${application.datasource.replicas:}") List<String> replicaUrls,
+            @Value("${application.datasource.replica-username:${spring.datasource.username:}}") String replicaUsername,
+            @Value("${application.datasource.replica-password:${spring.datasource.password:}}") String replicaPassword,
+            @Value("${application.datasource.replica-lag-query:" + POSTGRES_LAG_QUERY + "}") String lagQuery,
+            @Value("${application.datasource.replica-max-lag:PT1S}") Duration maxLag) {
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = pool(ReplicaRoutingDataSource.PRIMARY, properties.determineUrl(),
+                properties.determineUsername(), properties.determinePassword(), properties, binder, metrics);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            String name = "replica-" + (i + 1);
+            HikariDataSource replica = pool(name, replicaUrls.get(i).trim(), replicaUsername, replicaPassword,
+                    properties, binder, metrics);
+            replica.setReadOnly(true);
+            replicas.put(name, replica);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, lagQuery, maxLag,
+                readYourWritesTracker::callerWroteRecently, meterRegistry);
+    }
+
+    // Connections are fetched on first use, after the transaction's read-only flag has been set
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    private static HikariDataSource pool(String name, String url, String username, String password,
+                                         DataSourceProperties properties, Binder binder,
+                                         MicrometerMetricsTrackerFactory metrics) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        // What Boot's own Hikari auto-configuration binds: pool size, timeouts, leak detection
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(name);
+        dataSource.setMetricsTrackerFactory(metrics);
+        return dataSource;
+    }
+}
@@ -0,0 +1,58 @@
+package com.ocs.auth.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ocs.auth.service.UserCacheEvictedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Remembers who changed a user recently, so that caller's read-only transactions go to the
+ * primary until the replicas have caught up. Everyone else keeps reading from replicas.
+ * The window is tracked per replica of this service; a caller routed elsewhere right after
+ * a write relies on {@code replica-max-lag} alone.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(
+            @Value("${application.datasource.read-your-writes-window:PT10S}") Duration window,
+            @Value("${application.datasource.read-your-writes-max-callers:100000}") long maxCallers) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maxCallers)
+                .build();
+    }
+
+    // Every user write evicts the cache, so the eviction event marks the caller as a writer
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onUserWritten(UserCacheEvictedEvent event) {
+        String caller = callerName();
+        if (caller != null) {
+            recentWriters.put(caller, Boolean.TRUE);
+        }
+    }
+
+    public boolean callerWroteRecently() {
+        String caller = callerName();
+        return caller != null && recentWriters.getIfPresent(caller) != null;
+    }
+
+    private static String callerName() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
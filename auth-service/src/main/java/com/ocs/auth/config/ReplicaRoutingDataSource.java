@@ -0,0 +1,135 @@
+package com.ocs.auth.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the primary. Replicas
+ * are probed on a schedule and skipped while unreachable or lagging by more than
+ * {@code maxLag}; with no healthy replica, reads fall back to the primary, as do reads of a
+ * caller for whom {@code pinnedToPrimary} holds (read-your-writes). Must be used
+ * behind a {@link LazyConnectionDataSourceProxy} so the connection is only fetched once
+ * the transaction's read-only flag is known.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    public static final String PRIMARY = "primary";
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final BooleanSupplier pinnedToPrimary;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private volatile List<Replica> healthyReplicas = List.of();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicaDataSources,
+                                    String lagQuery, Duration maxLag, BooleanSupplier pinnedToPrimary,
+                                    MeterRegistry meterRegistry) {
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        this.pinnedToPrimary = pinnedToPrimary;
+        Map<Object, Object> targets = new HashMap<>(replicaDataSources);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        replicaDataSources.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource);
+            replicas.add(replica);
+            Gauge.builder("auth.datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .description("Replication lag of a read replica, NaN while it is unreachable")
+                    .baseUnit("seconds")
+                    .tag("pool", name)
+                    .register(meterRegistry);
+        });
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || pinnedToPrimary.getAsBoolean()) {
+            return PRIMARY;
+        }
+        List<Replica> candidates = healthyReplicas;
+        if (candidates.isEmpty()) {
+            return PRIMARY;
+        }
+        return candidates.get(Math.floorMod(nextReplica.getAndIncrement(), candidates.size())).name;
+    }
+
+    @Scheduled(fixedDelayString = "${application.datasource.replica-check-interval:PT5S}")
+    public void checkReplicas() {
+        if (replicas.isEmpty()) {
+            return;
+        }
+        List<Replica> previous = healthyReplicas;
+        List<Replica> healthy = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            boolean up = probe(replica);
+            if (up) {
+                healthy.add(replica);
+            }
+            if (up != previous.contains(replica)) {
+                log.info("Read replica {} is now {} (lag {}s)", replica.name, up ? "in use" : "skipped", replica.lagSeconds);
+            }
+        }
+        healthyReplicas = List.copyOf(healthy);
+    }
+
+    private boolean probe(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection()) {
+            if (lagQuery == null || lagQuery.isBlank()) {
+                replica.lagSeconds = 0;
+                return connection.isValid(1);
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                replica.lagSeconds = resultSet.next() ? resultSet.getDouble(1) : Double.NaN;
+            }
+            return replica.lagSeconds <= maxLag.toMillis() / 1000d;
+        } catch (SQLException e) {
+            replica.lagSeconds = Double.NaN;
+            log.debug("Read replica {} is unreachable: {}", replica.name, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource dataSource : getResolvedDataSources().values()) {
+            if (dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile double lagSeconds = Double.NaN;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -1,19 +1,52 @@
-//package com.smart360.auth.config;
-//
-//import org.springframework.context.annotation.Bean;
-//import org.springframework.context.annotation.Configuration;
-//import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
-//import org.springframework.security.access.hierarchicalroles.RoleHierarchyImpl;
-//
-//@Configuration
-//public class RoleHierarchyConfig {
-//
-//    @Bean
-//    public RoleHierarchy roleHierarchy() {
-//        RoleHierarchyImpl roleHierarchy = new RoleHierarchyImpl();
-//        String hierarchy =
-//            "ROLE_SUPER_ADMIN > ROLE_ADMIN > ROLE_USER";
-//        roleHierarchy.setHierarchy(hierarchy);
-//        return roleHierarchy;
-//    }
-//}
\ No newline at end of file
+package com.ocs.auth.config;
+
+import com.ocs.auth.model.Role;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * SUPER_ADMIN > ADMIN > USER, answered from the closures precomputed on {@link Role}
+ * instead of parsing a hierarchy string.
+ */
+@Configuration
+public class RoleHierarchyConfig {
+
+    @Bean
+    public static RoleHierarchy roleHierarchy() {
+        return RoleHierarchyConfig::reachableAuthorities;
+    }
+
+    @Bean
+    public static MethodSecurityExpressionHandler methodSecurityExpressionHandler(RoleHierarchy roleHierarchy) {
+        DefaultMethodSecurityExpressionHandler handler = new DefaultMethodSecurityExpressionHandler();
+        handler.setRoleHierarchy(roleHierarchy);
+        return handler;
+    }
+
+    private static Collection<? extends GrantedAuthority> reachableAuthorities(
+            Collection<? extends GrantedAuthority> authorities) {
+        // Principals carry exactly one role authority, which resolves to a shared list
+        if (authorities.size() == 1) {
+            Role role = Role.forRoleName(authorities.iterator().next().getAuthority());
+            return role != null ? role.getReachableAuthorities() : authorities;
+        }
+        List<GrantedAuthority> reachable = new ArrayList<>(authorities);
+        for (GrantedAuthority authority : authorities) {
+            Role role = Role.forRoleName(authority.getAuthority());
+            if (role != null) {
+                role.getReachableAuthorities().stream()
+                        .filter(implied -> !reachable.contains(implied))
+                        .forEach(reachable::add);
+            }
+        }
+        return reachable;
+    }
+}
@@ -0,0 +1,54 @@
+package com.ocs.auth.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.ocs.auth.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Bounded Caffeine regions backing the Hibernate second-level cache for {@link User}, one
+ * keyed by id and one mapping usernames to ids. Each region reports {@code cache.*}
+ * metrics (hits, misses, puts, evictions) tagged with its name.
+ */
+@Configuration
+public class UserCacheConfig {
+
+    public static final String USER_REGION = User.class.getName();
+    public static final String USER_NATURAL_ID_REGION = USER_REGION + "##NaturalId";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${application.user-cache.max-size:10000}") long maxSize,
+            @Value("${application.user-cache.time-to-live:PT5M}") Duration timeToLive,
+            MeterRegistry meterRegistry) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("auth-service-hibernate"), getClass().getClassLoader());
+        for (String region : List.of(USER_REGION, USER_NATURAL_ID_REGION)) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+            // Bounds how long another replica's change can go unseen when no invalidation reaches us
+            configuration.setExpireAfterWrite(OptionalLong.of(timeToLive.toNanos()));
+            configuration.setStatisticsEnabled(true);
+            JCacheMetrics.monitor(meterRegistry, cacheManager.createCache(region, configuration));
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
@@ -1,30 +1,97 @@
 package com.ocs.auth.controller;
 
+import com.ocs.auth.dto.BulkOperationResponse;
+import com.ocs.auth.dto.BulkUserRequest;
+import com.ocs.auth.dto.UserPageResponse;
 import com.ocs.auth.dto.UserResponse;
+import com.ocs.auth.model.Role;
 import com.ocs.auth.service.AdminService;
+import com.ocs.auth.service.UserImportService;
+import com.ocs.auth.util.ETags;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/api/admin")
 @RequiredArgsConstructor
-@PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+@PreAuthorize("hasRole('ADMIN')")
 public class AdminController {
 
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final AdminService adminService;
+    private final UserImportService userImportService;
 
     @GetMapping("/users")
-    public ResponseEntity<List<UserResponse>> getAllUsers() {
-        return ResponseEntity.ok(adminService.getAllUsers());
+    public ResponseEntity<UserPageResponse> getUsers(
+            @RequestParam(required = false) Role role,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdAfter,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdBefore,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(adminService.getUsers(role, createdAfter, createdBefore, sort,
+                !"desc".equalsIgnoreCase(direction), cursor, size));
+    }
+
+    /**
+     * Case-insensitive search ordered by username. {@code match=prefix} (default) matches the
+     * start of username or email; {@code match=contains} matches anywhere in username, email,
+     * first or last name and needs at least three characters.
+     */
+    @GetMapping("/users/search")
+    public ResponseEntity<UserPageResponse> searchUsers(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "prefix") String match,
+            @RequestParam(required = false) Role role,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(adminService.searchUsers(q, "contains".equalsIgnoreCase(match), role, cursor, size));
+    }
+
+    @GetMapping(value = "/users/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportUsers(@RequestParam(required = false) Role role, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        adminService.exportUsers(role, response.getOutputStream());
+    }
+
+    /**
+     * Streams a CSV (with header row) or NDJSON upload into new users and streams back
+     * one NDJSON result per row as each batch is committed.
+     */
+    @PostMapping(value = "/users/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        userImportService.importUsers(request.getInputStream(), MediaType.parseMediaType(request.getContentType()),
+                response.getOutputStream());
     }
 
     @GetMapping("/users/{userId}")
-    public ResponseEntity<UserResponse> getUserById(@PathVariable Long userId) {
-        return ResponseEntity.ok(adminService.getUserById(userId));
+    public ResponseEntity<UserResponse> getUserById(@PathVariable Long userId, @RequestHeader HttpHeaders headers) {
+        String eTag = adminService.getUserETag(userId);
+        if (ETags.matches(headers.getIfNoneMatch(), eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(REVALIDATE).build();
+        }
+        UserResponse user = adminService.getUserById(userId);
+        return ResponseEntity.ok()
+                .eTag(ETags.fromVersion(user.getId(), user.getUpdatedAt()))
+                .cacheControl(REVALIDATE)
+                .body(user);
     }
 
     @PutMapping("/users/{userId}/role")
@@ -34,6 +101,18 @@ public class AdminController {
         return ResponseEntity.ok(adminService.updateUserRole(userId, role));
     }
 
+    @PutMapping("/users/bulk/role")
+    public ResponseEntity<BulkOperationResponse> updateUsersRole(
+            @Valid @RequestBody BulkUserRequest request,
+            @RequestParam String role) {
+        return ResponseEntity.ok(adminService.updateUsersRole(request, role));
+    }
+
+    @PostMapping("/users/bulk/delete")
+    public ResponseEntity<BulkOperationResponse> deleteUsers(@Valid @RequestBody BulkUserRequest request) {
+        return ResponseEntity.ok(adminService.deleteUsers(request));
+    }
+
     @DeleteMapping("/users/{userId}")
     public ResponseEntity<Void> deleteUser(@PathVariable Long userId) {
         adminService.deleteUser(userId);
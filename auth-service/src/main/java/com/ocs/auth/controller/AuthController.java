@@ -1,16 +1,25 @@
 package com.ocs.auth.controller;
 
 import com.ocs.auth.dto.AuthResponse;
+import com.ocs.auth.dto.AvailabilityResponse;
 import com.ocs.auth.dto.LoginRequest;
 import com.ocs.auth.dto.RegisterRequest;
+import com.ocs.auth.exception.AuthException;
 import com.ocs.auth.security.CookieUtils;
+import com.ocs.auth.security.JwtKeyRing;
 import com.ocs.auth.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -18,6 +27,7 @@ public class AuthController {
 
     private final AuthService authService;
     private final CookieUtils cookieUtils;
+    private final JwtKeyRing keyRing;
 
     @PostMapping("/register")
     public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
@@ -26,9 +36,20 @@ public class AuthController {
         return ResponseEntity.ok(authResponse);
     }
 
+    @GetMapping("/availability")
+    public ResponseEntity<AvailabilityResponse> availability(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String email) {
+        if (username == null && email == null) {
+            throw new AuthException("username or email is required", HttpStatus.BAD_REQUEST, "INVALID_AVAILABILITY_QUERY");
+        }
+        return ResponseEntity.ok(authService.checkAvailability(username, email));
+    }
+
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request, HttpServletResponse response) {
-        AuthResponse authResponse = authService.login(request);
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request,
+                                              HttpServletRequest httpRequest, HttpServletResponse response) {
+        AuthResponse authResponse = authService.login(request, httpRequest.getRemoteAddr());
         
         // Set tokens in cookies
         cookieUtils.addTokenCookie(response, authResponse.getToken());
@@ -50,7 +71,7 @@ public class AuthController {
         
         // Set new tokens in cookies
         cookieUtils.addTokenCookie(response, authResponse.getToken());
-        cookieUtils.addRefreshTokenCookie(response, refreshToken);
+        cookieUtils.addRefreshTokenCookie(response, authResponse.getRefreshToken());
         
         // Remove tokens from response
         authResponse.setToken(null);
@@ -66,8 +87,20 @@ public class AuthController {
         return ResponseEntity.ok(authService.validateToken(token));
     }
 
+    @GetMapping("/jwks")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        // Verifiers cache the key set and only come back for an unknown kid
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .body(keyRing.jwks());
+    }
+
     @PostMapping("/logout")
-    public ResponseEntity<AuthResponse> logout(HttpServletResponse response) {
+    public ResponseEntity<AuthResponse> logout(
+            @CookieValue(name = "${application.security.jwt.cookie-name}", required = false) String token,
+            @CookieValue(name = "${application.security.jwt.refresh-token.cookie-name}", required = false) String refreshToken,
+            HttpServletResponse response) {
+        authService.logout(token, refreshToken);
         cookieUtils.deleteTokenCookie(response);
         cookieUtils.deleteRefreshTokenCookie(response);
         return ResponseEntity.ok(AuthResponse.builder()
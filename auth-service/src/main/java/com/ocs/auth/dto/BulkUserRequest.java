@@ -0,0 +1,29 @@
+package com.ocs.auth.dto;
+
+import com.ocs.auth.model.Role;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Selects the users a bulk admin operation applies to: either explicit {@code ids}, or a
+ * filter with at least one of {@code role}, {@code createdAfter} or {@code createdBefore}.
+ * SUPER_ADMIN users are never selected.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUserRequest {
+    @Size(max = 100000, message = "At most 100000 ids per request")
+    private List<Long> ids;
+
+    private Role role;
+    private LocalDateTime createdAfter;
+    private LocalDateTime createdBefore;
+}
@@ -0,0 +1,28 @@
+package com.ocs.auth.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserImportResult {
+    private long line;
+    private String username;
+    private Status status;
+    private String message;
+
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        // Executed, but the driver did not report whether the row was inserted or skipped as a duplicate
+        UNKNOWN,
+        INVALID,
+        FAILED
+    }
+}
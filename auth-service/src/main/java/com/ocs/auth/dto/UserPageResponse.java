@@ -0,0 +1,20 @@
+package com.ocs.auth.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserPageResponse {
+    private List<UserResponse> users;
+    // Opaque; pass back as ?cursor= to fetch the next page. Absent on the last page.
+    private String nextCursor;
+}
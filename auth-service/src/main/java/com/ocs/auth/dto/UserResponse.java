@@ -1,6 +1,7 @@
 package com.ocs.auth.dto;
 
 import com.ocs.auth.model.Role;
+import com.ocs.auth.model.User;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -21,4 +22,21 @@ public class UserResponse {
     private Role role;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+
+    /**
+     * For write paths that already hold the entity; read paths should select straight into
+     * this type with a constructor expression instead of loading the entity.
+     */
+    public static UserResponse from(User user) {
+        return UserResponse.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .role(user.getRole())
+                .createdAt(user.getCreatedAt())
+                .updatedAt(user.getUpdatedAt())
+                .build();
+    }
 } 
\ No newline at end of file
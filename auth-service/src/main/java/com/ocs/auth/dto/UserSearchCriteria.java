@@ -0,0 +1,30 @@
+package com.ocs.auth.dto;
+
+import com.ocs.auth.enums.UserSortFieldEnum;
+import com.ocs.auth.model.Role;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Filters and seek position for one page of the admin user listing. {@code afterValue}
+ * and {@code afterId} identify the last row of the previous page; both are null for the
+ * first page. {@code search}, when set, is matched case-insensitively as a prefix of
+ * username or email, or with {@code substring} as a substring of any name field.
+ */
+@Data
+@Builder
+public class UserSearchCriteria {
+    private List<Role> roles;
+    private LocalDateTime createdAfter;
+    private LocalDateTime createdBefore;
+    private String search;
+    private boolean substring;
+    private UserSortFieldEnum sort;
+    private boolean ascending;
+    private Comparable<?> afterValue;
+    private Long afterId;
+    private int limit;
+}
@@ -1,7 +1,10 @@
 package com.ocs.auth.enums;
 
 public enum ClaimsEnum {
-    ROLE("role");
+    ROLE("role"),
+    USER_ID("uid"),
+    FAMILY("fam"),
+    TYPE("typ");
 
     private final String key;
 
@@ -0,0 +1,26 @@
+package com.ocs.auth.enums;
+
+public enum UserSortFieldEnum {
+    ID("id"),
+    USERNAME("username"),
+    CREATED_AT("createdAt");
+
+    private final String property;
+
+    UserSortFieldEnum(String property) {
+        this.property = property;
+    }
+
+    public String getValue() {
+        return property;
+    }
+
+    public static UserSortFieldEnum fromString(String property) {
+        for (UserSortFieldEnum field : UserSortFieldEnum.values()) {
+            if (field.property.equalsIgnoreCase(property)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("No sort field found with name: " + property);
+    }
+}
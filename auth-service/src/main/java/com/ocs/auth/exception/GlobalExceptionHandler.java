@@ -5,6 +5,7 @@ import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -32,6 +33,15 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(ex, request);
     }
 
+    @ExceptionHandler(ThrottledException.class)
+    public ResponseEntity<ErrorResponse> handleThrottledException(ThrottledException ex, WebRequest request) {
+        log.warn("Request throttled: {}", ex.getMessage());
+        ResponseEntity<ErrorResponse> response = buildErrorResponse(ex, request);
+        return ResponseEntity.status(response.getStatusCode())
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(response.getBody());
+    }
+
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<ErrorResponse> handleBadCredentialsException(BadCredentialsException ex, WebRequest request) {
         log.error("Bad Credentials: {}", ex.getMessage(), ex);
@@ -0,0 +1,9 @@
+package com.ocs.auth.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class HashingCapacityExceededException extends ThrottledException {
+    public HashingCapacityExceededException(String message, long retryAfterSeconds) {
+        super(message, HttpStatus.SERVICE_UNAVAILABLE, "HASHING_CAPACITY_EXCEEDED", retryAfterSeconds);
+    }
+}
@@ -0,0 +1,9 @@
+package com.ocs.auth.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class LoginThrottledException extends ThrottledException {
+    public LoginThrottledException(String message, long retryAfterSeconds) {
+        super(message, HttpStatus.TOO_MANY_REQUESTS, "LOGIN_THROTTLED", retryAfterSeconds);
+    }
+}
@@ -0,0 +1,18 @@
+package com.ocs.auth.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Raised when a request is shed under load. Carries the delay clients should wait
+ * before retrying, sent back as a {@code Retry-After} header.
+ */
+@Getter
+public abstract class ThrottledException extends AuthException {
+    private final long retryAfterSeconds;
+
+    protected ThrottledException(String message, HttpStatus status, String errorCode, long retryAfterSeconds) {
+        super(message, status, errorCode);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,49 @@
+package com.ocs.auth.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(LoginAttemptWindow.Key.class)
+@Table(name = "login_attempt_windows", indexes = {
+    @Index(name = "idx_login_attempt_windows_expires_at", columnList = "expires_at")
+})
+public class LoginAttemptWindow {
+
+    @Id
+    @Column(name = "counter_key", length = 320)
+    private String counterKey;
+
+    @Id
+    @Column(name = "window_index")
+    private Long windowIndex;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String counterKey;
+        private Long windowIndex;
+    }
+}
@@ -0,0 +1,49 @@
+package com.ocs.auth.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One row per login session. Only the newest refresh token of the family is accepted;
+ * presenting any older one means it was replayed and the whole family is dropped. The
+ * token it replaced is remembered briefly, so concurrent refreshes from two tabs or a
+ * retried request are not mistaken for a replay.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "refresh_token_families", indexes = {
+    @Index(name = "idx_refresh_token_families_expires_at", columnList = "expires_at")
+})
+public class RefreshTokenFamily {
+
+    @Id
+    @Column(name = "family_id", length = 36)
+    private String familyId;
+
+    @Column(name = "current_token_id", nullable = false, length = 36)
+    private String currentTokenId;
+
+    @Column(name = "previous_token_id", length = 36)
+    private String previousTokenId;
+
+    @Column(name = "rotated_at")
+    private Instant rotatedAt;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
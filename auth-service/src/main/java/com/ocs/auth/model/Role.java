@@ -1,26 +1,90 @@
 package com.ocs.auth.model;
 
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Roles from most to least privileged; each role implies every role declared after it.
+ * Authorities and implied roles are computed once, so role checks are a bit test and
+ * never allocate.
+ */
 public enum Role {
     SUPER_ADMIN("ROLE_SUPER_ADMIN"),
     ADMIN("ROLE_ADMIN"),
     USER("ROLE_USER");
 
+    private static final Map<String, Role> BY_ROLE_NAME = new HashMap<>();
+
+    static {
+        for (Role role : values()) {
+            BY_ROLE_NAME.put(role.roleName, role);
+            List<GrantedAuthority> reachable = new ArrayList<>();
+            for (Role implied : values()) {
+                if (implied.ordinal() >= role.ordinal()) {
+                    role.impliedRoles |= implied.bit();
+                    reachable.add(implied.authority);
+                }
+            }
+            role.reachableAuthorities = Collections.unmodifiableList(reachable);
+        }
+    }
+
     private final String roleName;
+    private final GrantedAuthority authority;
+    private final List<GrantedAuthority> authorities;
+    private int impliedRoles;
+    private List<GrantedAuthority> reachableAuthorities;
 
     Role(String roleName) {
         this.roleName = roleName;
+        this.authority = new SimpleGrantedAuthority(roleName);
+        this.authorities = List.of(authority);
     }
 
     public String getRoleName() {
         return roleName;
     }
 
+    public GrantedAuthority getAuthority() {
+        return authority;
+    }
+
+    // The role's own authority, shared by every principal holding it
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    // Own authority plus those of every implied role, for the RoleHierarchy
+    public List<GrantedAuthority> getReachableAuthorities() {
+        return reachableAuthorities;
+    }
+
+    public boolean implies(Role other) {
+        return (impliedRoles & other.bit()) != 0;
+    }
+
+    private int bit() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Returns the role with the given {@code ROLE_} name, or {@code null} if there is none.
+     */
+    public static Role forRoleName(String roleName) {
+        return roleName != null ? BY_ROLE_NAME.get(roleName) : null;
+    }
+
     public static Role fromString(String roleName) {
-        for (Role role : Role.values()) {
-            if (role.roleName.equals(roleName)) {
-                return role;
-            }
+        Role role = forRoleName(roleName);
+        if (role == null) {
+            throw new IllegalArgumentException("No role found with name: " + roleName);
         }
-        throw new IllegalArgumentException("No role found with name: " + roleName);
+        return role;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,38 @@
+package com.ocs.auth.repository;
+
+import com.ocs.auth.model.LoginAttemptWindow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LoginAttemptWindowRepository extends JpaRepository<LoginAttemptWindow, LoginAttemptWindow.Key> {
+
+    List<LoginAttemptWindow> findByCounterKeyAndWindowIndexIn(String counterKey, Collection<Long> windowIndexes);
+
+    // Single round trip and safe under concurrent increments from several replicas
+    @Transactional
+    @Modifying
+    @Query(value = "insert into login_attempt_windows (counter_key, window_index, attempts, expires_at) "
+            + "values (:key, :window, 1, :expiresAt) "
+            + "on conflict (counter_key, window_index) do update set attempts = login_attempt_windows.attempts + 1",
+            nativeQuery = true)
+    void increment(@Param("key") String key, @Param("window") long window, @Param("expiresAt") Instant expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from LoginAttemptWindow w where w.counterKey = :key")
+    int deleteByKey(@Param("key") String key);
+
+    @Transactional
+    @Modifying
+    @Query("delete from LoginAttemptWindow w where w.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,41 @@
+package com.ocs.auth.repository;
+
+import com.ocs.auth.model.RefreshTokenFamily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface RefreshTokenFamilyRepository extends JpaRepository<RefreshTokenFamily, String> {
+
+    @Modifying
+    @Query(value = "insert into refresh_token_families (family_id, current_token_id, user_id, expires_at) "
+            + "values (:familyId, :tokenId, :userId, :expiresAt)", nativeQuery = true)
+    void insert(@Param("familyId") String familyId, @Param("tokenId") String tokenId,
+                @Param("userId") Long userId, @Param("expiresAt") Instant expiresAt);
+
+    // Compare-and-set on the primary key: succeeds only for the family's current, unexpired token
+    @Modifying
+    @Query("update RefreshTokenFamily f set f.currentTokenId = :newTokenId, f.expiresAt = :expiresAt, "
+            + "f.previousTokenId = :tokenId, f.rotatedAt = :now "
+            + "where f.familyId = :familyId and f.currentTokenId = :tokenId and f.expiresAt > :now")
+    int rotate(@Param("familyId") String familyId, @Param("tokenId") String tokenId,
+               @Param("newTokenId") String newTokenId, @Param("expiresAt") Instant expiresAt,
+               @Param("now") Instant now);
+
+    @Modifying
+    @Query("delete from RefreshTokenFamily f where f.familyId = :familyId")
+    int deleteFamily(@Param("familyId") String familyId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "delete from refresh_token_families where family_id in ("
+            + "select family_id from refresh_token_families where expires_at < :now limit :batchSize)",
+            nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") Instant now, @Param("batchSize") int batchSize);
+}
@@ -0,0 +1,33 @@
+package com.ocs.auth.repository;
+
+import com.ocs.auth.model.UserCacheInvalidation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+// Reads are read-write so polling sees the primary; a lagging replica would hide evictions
+@Repository
+public interface UserCacheInvalidationRepository extends JpaRepository<UserCacheInvalidation, Long> {
+
+    @Transactional
+    @Query("select coalesce(max(i.id), 0) from UserCacheInvalidation i")
+    long findMaxId();
+
+    @Transactional
+    List<UserCacheInvalidation> findByIdGreaterThanOrderByIdAsc(Long id);
+
+    @Transactional
+    List<UserCacheInvalidation> findByIdIn(Collection<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query("delete from UserCacheInvalidation i where i.createdAt <= :before")
+    int deleteCreatedBefore(@Param("before") Instant before);
+}
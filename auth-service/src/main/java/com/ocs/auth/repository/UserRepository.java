@@ -1,18 +1,66 @@
 package com.ocs.auth.repository;
 
+import com.ocs.auth.dto.UserResponse;
 import com.ocs.auth.model.Role;
 import com.ocs.auth.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+    // Password checks only: a read-write query always reads the primary, never a lagging replica,
+    // and bypasses the second-level cache; other username lookups use findCachedByUsername
+    @Transactional
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
-    List<User> findAllByRoleIn(List<Role> roles);
+
+    // Set-based bulk operations; SUPER_ADMIN rows are excluded here as well as by callers
+    @Transactional
+    @Modifying
+    @Query("update User u set u.role = :role, u.updatedAt = :now "
+            + "where u.id in :ids and u.role <> com.ocs.auth.model.Role.SUPER_ADMIN and u.role <> :role")
+    int updateRoleByIdIn(@Param("ids") Collection<Long> ids, @Param("role") Role role, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from User u where u.id in :ids and u.role <> com.ocs.auth.model.Role.SUPER_ADMIN")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Projections select only the columns UserResponse needs, never the password hash
+    String USER_RESPONSE = "new com.ocs.auth.dto.UserResponse("
+            + "u.id, u.username, u.email, u.firstName, u.lastName, u.role, u.createdAt, u.updatedAt)";
+
+    @Query("select " + USER_RESPONSE + " from User u where u.id = :id")
+    Optional<UserResponse> findResponseById(@Param("id") Long id);
+
+    // Version lookups for conditional GETs read a single column instead of the row
+    @Query("select u.updatedAt from User u where u.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    // Fetch size makes the driver use a server-side cursor instead of loading every row
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select " + USER_RESPONSE + " from User u where u.role in :roles order by u.id")
+    Stream<UserResponse> streamResponsesByRoleIn(@Param("roles") List<Role> roles);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    // Only replaces the hash it was computed from, so a concurrent password change wins
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :newPassword where u.id = :id and u.password = :oldPassword")
+    int replacePassword(@Param("id") Long id, @Param("oldPassword") String oldPassword,
+                        @Param("newPassword") String newPassword);
 } 
\ No newline at end of file
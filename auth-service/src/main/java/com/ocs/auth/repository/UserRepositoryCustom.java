@@ -0,0 +1,29 @@
+package com.ocs.auth.repository;
+
+import com.ocs.auth.dto.UserResponse;
+import com.ocs.auth.dto.UserSearchCriteria;
+import com.ocs.auth.model.User;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Seeks to the position in {@code criteria} and returns up to {@code limit} users, projected without the password hash, in
+     * sort order, with the id as tie-breaker so the order is total.
+     */
+    List<UserResponse> findPage(UserSearchCriteria criteria);
+
+    /**
+     * Returns up to {@code limit} ids matching the filters in {@code criteria}, in id order
+     * after {@code afterId}; used to walk a filter in chunks for bulk updates.
+     */
+    List<Long> findIds(UserSearchCriteria criteria);
+
+    /**
+     * Loads a user by its natural id through the second-level cache. Not for password
+     * checks, which must see the primary; use {@link UserRepository#findByUsername} there.
+     */
+    Optional<User> findCachedByUsername(String username);
+}
@@ -0,0 +1,121 @@
+package com.ocs.auth.repository;
+
+import com.ocs.auth.dto.UserResponse;
+import com.ocs.auth.dto.UserSearchCriteria;
+import com.ocs.auth.enums.UserSortFieldEnum;
+import com.ocs.auth.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Keyset pagination: instead of OFFSET, each page starts strictly after the last row of
+ * the previous one, so every page costs an index range scan however deep it is.
+ */
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<User> findCachedByUsername(String username) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(username);
+    }
+
+    @Override
+    public List<UserResponse> findPage(UserSearchCriteria criteria) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserResponse> query = cb.createQuery(UserResponse.class);
+        Root<User> user = query.from(User.class);
+        Expression<Long> id = user.get("id");
+        Expression<?> sortKey = user.get(criteria.getSort().getValue());
+
+        List<Predicate> predicates = filters(cb, user, criteria);
+        if (criteria.getAfterId() != null) {
+            Predicate afterId = beyond(cb, id, criteria.getAfterId(), criteria.isAscending());
+            if (criteria.getSort() == UserSortFieldEnum.ID) {
+                predicates.add(afterId);
+            } else {
+                predicates.add(cb.or(
+                        beyond(cb, sortKey, criteria.getAfterValue(), criteria.isAscending()),
+                        cb.and(cb.equal(sortKey, criteria.getAfterValue()), afterId)));
+            }
+        }
+
+        List<Expression<?>> order = criteria.getSort() == UserSortFieldEnum.ID ? List.of(id) : List.of(sortKey, id);
+        query.select(cb.construct(UserResponse.class, id, user.get("username"), user.get("email"),
+                        user.get("firstName"), user.get("lastName"), user.get("role"),
+                        user.get("createdAt"), user.get("updatedAt")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(order.stream().map(key -> criteria.isAscending() ? cb.asc(key) : cb.desc(key)).toList());
+        return entityManager.createQuery(query)
+                .setMaxResults(criteria.getLimit())
+                .getResultList();
+    }
+
+    @Override
+    public List<Long> findIds(UserSearchCriteria criteria) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<User> user = query.from(User.class);
+        Expression<Long> id = user.get("id");
+
+        List<Predicate> predicates = filters(cb, user, criteria);
+        if (criteria.getAfterId() != null) {
+            predicates.add(cb.greaterThan(id, criteria.getAfterId()));
+        }
+        query.select(id)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(id));
+        return entityManager.createQuery(query)
+                .setMaxResults(criteria.getLimit())
+                .getResultList();
+    }
+
+    private static List<Predicate> filters(CriteriaBuilder cb, Root<User> user, UserSearchCriteria criteria) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(user.get("role").in(criteria.getRoles()));
+        if (criteria.getCreatedAfter() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(user.get("createdAt"), criteria.getCreatedAfter()));
+        }
+        if (criteria.getCreatedBefore() != null) {
+            predicates.add(cb.lessThan(user.get("createdAt"), criteria.getCreatedBefore()));
+        }
+        if (criteria.getSearch() != null) {
+            predicates.add(matches(cb, user, criteria.getSearch(), criteria.isSubstring()));
+        }
+        return predicates;
+    }
+
+    // lower(column) like ... matches the expression indexes created in V3__user_search_indexes.sql
+    private static Predicate matches(CriteriaBuilder cb, Root<User> user, String search, boolean substring) {
+        String escaped = search.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        String pattern = substring ? '%' + escaped + '%' : escaped + '%';
+        List<String> fields = substring
+                ? List.of("username", "email", "firstName", "lastName")
+                : List.of("username", "email");
+        return cb.or(fields.stream()
+                .map(field -> cb.like(cb.lower(user.<String>get(field)), pattern, '\\'))
+                .toArray(Predicate[]::new));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate beyond(CriteriaBuilder cb, Expression key, Comparable value, boolean ascending) {
+        return ascending ? cb.greaterThan(key, value) : cb.lessThan(key, value);
+    }
+}
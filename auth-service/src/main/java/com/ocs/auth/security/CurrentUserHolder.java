@@ -0,0 +1,33 @@
+package com.ocs.auth.security;
+
+import com.ocs.auth.model.User;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.function.Function;
+
+/**
+ * Memoizes the authenticated {@link User} for the current request: however many services
+ * ask for it, the row is loaded at most once, and not at all if nothing does. Outside a
+ * web request every call loads afresh.
+ */
+@Component
+public class CurrentUserHolder {
+
+    private static final String ATTRIBUTE = CurrentUserHolder.class.getName() + ".USER";
+
+    public User get(String username, Function<String, User> loader) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return loader.apply(username);
+        }
+        if (attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof User user
+                && user.getUsername().equals(username)) {
+            return user;
+        }
+        User user = loader.apply(username);
+        attributes.setAttribute(ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        return user;
+    }
+}
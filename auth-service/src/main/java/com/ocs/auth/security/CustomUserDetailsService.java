@@ -17,7 +17,8 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        // Resolves principals of already verified tokens, so the cached lookup is enough
+        User user = userRepository.findCachedByUsername(username)
                 .orElseThrow(() -> new UserNotFoundException("User not found with username: " + username));
         return user;
     }
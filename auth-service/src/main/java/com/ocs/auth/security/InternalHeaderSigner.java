@@ -0,0 +1,110 @@
+package com.ocs.auth.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Checks the identity headers the api-gateway forwards after verifying a token at the edge.
+ * Must use the same secret and payload layout as the gateway's signer. Off unless
+ * {@code trust-identity-headers} is set; the secret then has to be supplied from the
+ * environment or the config server, and startup fails without it.
+ */
+@Component
+public class InternalHeaderSigner {
+
+    public static final String USERNAME_HEADER = "X-Auth-User";
+    public static final String ROLE_HEADER = "X-Auth-Role";
+    public static final String USER_ID_HEADER = "X-Auth-User-Id";
+    public static final String TOKEN_ID_HEADER = "X-Auth-Token-Id";
+    public static final String EXPIRES_HEADER = "X-Auth-Expires";
+    public static final String SIGNATURE_HEADER = "X-Auth-Signature";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    // Anyone holding the secret can claim any identity, so it must be at least as strong as the MAC
+    private static final int MIN_SECRET_LENGTH = 32;
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> mac = ThreadLocal.withInitial(this::newMac);
+
+    public InternalHeaderSigner(
+            @Value("${application.security.gateway.trust-identity-headers:false}") boolean enabled,
+            @Value("${application.security.gateway.header-secret:}") String secret) {
+        if (!enabled) {
+            this.key = null;
+            return;
+        }
+        if (secret == null || secret.length() < MIN_SECRET_LENGTH) {
+            throw new IllegalStateException("application.security.gateway.trust-identity-headers requires "
+                    + "application.security.gateway.header-secret of at least " + MIN_SECRET_LENGTH + " characters");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    public boolean isEnabled() {
+        return key != null;
+    }
+
+    /**
+     * Returns the identity carried by valid, unexpired gateway headers, or {@code null}
+     * when the headers are absent or do not verify.
+     */
+    public VerifiedToken verify(HttpServletRequest request) {
+        if (key == null) {
+            return null;
+        }
+        String signature = request.getHeader(SIGNATURE_HEADER);
+        String username = request.getHeader(USERNAME_HEADER);
+        String role = request.getHeader(ROLE_HEADER);
+        String expires = request.getHeader(EXPIRES_HEADER);
+        if (signature == null || username == null || role == null || expires == null) {
+            return null;
+        }
+        String userId = request.getHeader(USER_ID_HEADER);
+        String tokenId = request.getHeader(TOKEN_ID_HEADER);
+        try {
+            long expiresAt = Long.parseLong(expires);
+            byte[] expected = sign(username, role, userId, tokenId, expiresAt).getBytes(StandardCharsets.US_ASCII);
+            if (!MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.US_ASCII))
+                    || Instant.now().getEpochSecond() >= expiresAt) {
+                return null;
+            }
+            return VerifiedToken.builder()
+                    .tokenId(tokenId)
+                    .subject(username)
+                    .role(role)
+                    .userId(userId != null ? Long.valueOf(userId) : null)
+                    // The gateway only forwards identities of access tokens
+                    .type(TokenType.ACCESS)
+                    .expiresAt(Instant.ofEpochSecond(expiresAt))
+                    .build();
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private String sign(String username, String role, String userId, String tokenId, long expiresAt) {
+        String payload = username + '\n' + role + '\n' + (userId != null ? userId : "") + '\n'
+                + (tokenId != null ? tokenId : "") + '\n' + expiresAt;
+        byte[] signature = mac.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(ALGORITHM);
+            instance.init(key);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot initialise " + ALGORITHM, e);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.ocs.auth.security;
 
+import com.ocs.auth.model.Role;
+import com.ocs.auth.security.revocation.TokenRevocationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -9,48 +11,52 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     @Autowired
-    private JwtUtils jwtUtils;
+    private JwtService jwtService;
 
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private InternalHeaderSigner internalHeaderSigner;
+
+    @Autowired
+    private TokenRevocationService revocationService;
+
     @Value("${application.security.jwt.cookie-name}")
     private String tokenCookieName;
 
+    @Value("${application.security.jwt.stateless:false}")
+    private boolean stateless;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
-            String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateToken(jwt, userDetailsService.loadUserByUsername(jwtUtils.extractUsername(jwt)))) {
-                String username = jwtUtils.extractUsername(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                
-                // Get the role from the token claims
-                String roleName = jwtUtils.extractClaim(jwt, claims -> claims.get("role", String.class));
-                
-                // Create authorities list with the role from the token
-                List<GrantedAuthority> authorities = new ArrayList<>();
-                authorities.add(new SimpleGrantedAuthority(roleName));
-                
+            VerifiedToken token = resolveToken(request);
+            if (token != null) {
+                // In stateless mode the signed claims are the principal, so no database round-trip is needed
+                Object principal = stateless
+                        ? TokenPrincipal.from(token)
+                        : userDetailsService.loadUserByUsername(token.getSubject());
+
+                // The role's shared authority list; the RoleHierarchy expands it to implied roles
+                List<GrantedAuthority> authorities = Role.fromString(token.getRole()).getAuthorities();
+
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, authorities);
+                        principal, null, authorities);
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
@@ -60,6 +66,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private VerifiedToken resolveToken(HttpServletRequest request) {
+        // The gateway already verified the cookie and signed the identity it found
+        if (internalHeaderSigner.isEnabled()) {
+            VerifiedToken forwarded = internalHeaderSigner.verify(request);
+            if (forwarded != null) {
+                // The gateway cannot see revocations, so they are still enforced here
+                return revocationService.isRevoked(forwarded.getTokenId()) ? null : forwarded;
+            }
+        }
+        // Single parse: signature, expiry, subject and role all come from one verification
+        String jwt = parseJwt(request);
+        return jwt != null ? jwtService.verify(jwt, TokenType.ACCESS) : null;
+    }
+
     private String parseJwt(HttpServletRequest request) {
         Cookie[] cookies = request.getCookies();
         if (cookies != null) {
@@ -71,4 +91,4 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         return null;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,221 @@
+package com.ocs.auth.security;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import jakarta.annotation.PostConstruct;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-memory kid → key map used for signing and verification. Every configured key is
+ * accepted for verification, while only the active one signs, so a new key can be rolled
+ * out alongside the old one and the old one retired once its tokens have expired.
+ * The ring is rebuilt whenever the signing configuration is refreshed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JwtKeyRing {
+
+    private static final String PROPERTIES_PREFIX = "application.security.jwt.signing";
+
+    private final Environment environment;
+    private final VerifiedTokenCache tokenCache;
+
+    private volatile Snapshot snapshot;
+
+    @PostConstruct
+    void init() {
+        snapshot = load();
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        boolean signingChanged = event.getKeys().stream().anyMatch(key -> key.startsWith(PROPERTIES_PREFIX));
+        if (signingChanged) {
+            Snapshot previous = snapshot;
+            snapshot = load();
+            // Tokens signed by a retired key must not survive in the verified-token cache
+            if (!snapshot.keys.keySet().containsAll(previous.keys.keySet())) {
+                tokenCache.invalidateAll();
+            }
+            log.info("Reloaded JWT signing keys, active kid: {}", snapshot.active.getKid());
+        }
+    }
+
+    public SigningKey activeKey() {
+        return snapshot.active;
+    }
+
+    public SigningKey findKey(String kid) {
+        return kid != null ? snapshot.keys.get(kid) : null;
+    }
+
+    public Map<String, Object> jwks() {
+        return snapshot.jwks;
+    }
+
+    private Snapshot load() {
+        SigningProperties properties = Binder.get(environment)
+                .bind(PROPERTIES_PREFIX, SigningProperties.class)
+                .orElseGet(SigningProperties::new);
+
+        Map<String, SigningKey> keys = new LinkedHashMap<>();
+        SigningKey active = null;
+        for (KeyDefinition definition : properties.getKeys()) {
+            SigningKey key = parse(definition);
+            keys.put(key.getKid(), key);
+            if (definition.isActive()) {
+                active = key;
+            }
+        }
+        if (active == null) {
+            if (!keys.isEmpty()) {
+                throw new IllegalStateException("No active JWT signing key configured under " + PROPERTIES_PREFIX);
+            }
+            log.warn("No JWT signing keys configured, generating an ephemeral {} key. "
+                    + "Tokens will not survive a restart or verify on other replicas.", properties.getAlgorithm());
+            active = generate(properties.getAlgorithm());
+            keys.put(active.getKid(), active);
+        }
+        if (active.getPrivateKey() == null) {
+            throw new IllegalStateException("Active JWT signing key " + active.getKid() + " has no private key");
+        }
+        return new Snapshot(Map.copyOf(keys), active, buildJwks(keys.values()));
+    }
+
+    private static SigningKey parse(KeyDefinition definition) {
+        SignatureAlgorithm algorithm = SignatureAlgorithm.forName(definition.getAlgorithm());
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(keyFamily(algorithm));
+            PublicKey publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(decodePem(definition.getPublicKey())));
+            PrivateKey privateKey = definition.getPrivateKey() != null
+                    ? keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decodePem(definition.getPrivateKey())))
+                    : null;
+            return new SigningKey(definition.getKid(), algorithm, privateKey, publicKey);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid JWT signing key " + definition.getKid(), e);
+        }
+    }
+
+    private static SigningKey generate(String algorithmName) {
+        SignatureAlgorithm algorithm = SignatureAlgorithm.forName(algorithmName);
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance(keyFamily(algorithm));
+            if (algorithm.isEllipticCurve()) {
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+            } else {
+                generator.initialize(2048);
+            }
+            KeyPair keyPair = generator.generateKeyPair();
+            String kid = "ephemeral-" + UUID.randomUUID();
+            return new SigningKey(kid, algorithm, keyPair.getPrivate(), keyPair.getPublic());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot generate " + algorithmName + " signing key", e);
+        }
+    }
+
+    // Only RSA and P-256 keys are supported; jjwt 0.11 has no EdDSA and HMAC keys cannot be published
+    private static String keyFamily(SignatureAlgorithm algorithm) {
+        if (algorithm.isRsa()) {
+            return "RSA";
+        }
+        if (algorithm == SignatureAlgorithm.ES256) {
+            return "EC";
+        }
+        throw new IllegalStateException("Unsupported JWT signing algorithm: " + algorithm.getValue());
+    }
+
+    private static byte[] decodePem(String pem) {
+        String base64 = pem.replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+
+    private static Map<String, Object> buildJwks(Iterable<SigningKey> keys) {
+        List<Map<String, Object>> jwks = new ArrayList<>();
+        for (SigningKey key : keys) {
+            Map<String, Object> jwk = new LinkedHashMap<>();
+            jwk.put("kid", key.getKid());
+            jwk.put("alg", key.getAlgorithm().getValue());
+            jwk.put("use", "sig");
+            if (key.getPublicKey() instanceof RSAPublicKey rsa) {
+                jwk.put("kty", "RSA");
+                jwk.put("n", base64Url(rsa.getModulus(), 0));
+                jwk.put("e", base64Url(rsa.getPublicExponent(), 0));
+            } else if (key.getPublicKey() instanceof ECPublicKey ec) {
+                jwk.put("kty", "EC");
+                jwk.put("crv", "P-256");
+                jwk.put("x", base64Url(ec.getW().getAffineX(), 32));
+                jwk.put("y", base64Url(ec.getW().getAffineY(), 32));
+            }
+            jwks.add(jwk);
+        }
+        return Map.of("keys", List.copyOf(jwks));
+    }
+
+    // Unsigned big-endian encoding, left-padded to a fixed length for EC coordinates
+    private static String base64Url(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        if (bytes.length < length) {
+            byte[] padded = new byte[length];
+            System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+            bytes = padded;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    @Value
+    public static class SigningKey {
+        String kid;
+        SignatureAlgorithm algorithm;
+        PrivateKey privateKey;
+        PublicKey publicKey;
+    }
+
+    @Data
+    public static class SigningProperties {
+        private String algorithm = "RS256";
+        private List<KeyDefinition> keys = new ArrayList<>();
+    }
+
+    @Data
+    public static class KeyDefinition {
+        private String kid;
+        private String algorithm = "RS256";
+        private String privateKey;
+        private String publicKey;
+        private boolean active;
+    }
+
+    private record Snapshot(Map<String, SigningKey> keys, SigningKey active, Map<String, Object> jwks) {
+    }
+}
@@ -1,88 +1,152 @@
 package com.ocs.auth.security;
 
+import com.ocs.auth.enums.ClaimsEnum;
+import com.ocs.auth.exception.InvalidTokenException;
 import com.ocs.auth.model.User;
+import com.ocs.auth.security.revocation.TokenRevocationService;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
 
 @Service
 public class JwtService {
 
-    @Value("${application.security.jwt.secret-key}")
-    private String secret;
-
     @Value("${application.security.jwt.expiration}")
     private Long accessTokenExpiration;
 
     @Value("${application.security.jwt.refresh-token.expiration}")
     private Long refreshTokenExpiration;
 
-    private Key getSigningKey() {
-        byte[] keyBytes = secret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    @Autowired
+    private VerifiedTokenCache tokenCache;
+
+    @Autowired
+    private JwtKeyRing keyRing;
+
+    @Autowired
+    private TokenRevocationService revocationService;
+
+    // The parser is thread-safe, so it is built once; keys are looked up by kid on each parse
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new KeyRingResolver())
+                .build();
     }
 
     public String generateAccessToken(User user) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("role", user.getRole().getRoleName());
-        return createToken(claims, user.getUsername(), accessTokenExpiration);
+        claims.put(ClaimsEnum.ROLE.getValue(), user.getRole().getRoleName());
+        claims.put(ClaimsEnum.USER_ID.getValue(), user.getId());
+        claims.put(ClaimsEnum.TYPE.getValue(), TokenType.ACCESS.getValue());
+        Instant expiresAt = Instant.now().plusMillis(accessTokenExpiration);
+        return createToken(claims, user.getUsername(), UUID.randomUUID().toString(), expiresAt);
     }
 
-    public String generateRefreshToken(User user) {
+    public String generateRefreshToken(User user, String familyId, String tokenId, Instant expiresAt) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("role", user.getRole().getRoleName());
-        return createToken(claims, user.getUsername(), refreshTokenExpiration);
+        claims.put(ClaimsEnum.ROLE.getValue(), user.getRole().getRoleName());
+        claims.put(ClaimsEnum.FAMILY.getValue(), familyId);
+        claims.put(ClaimsEnum.TYPE.getValue(), TokenType.REFRESH.getValue());
+        return createToken(claims, user.getUsername(), tokenId, expiresAt);
     }
 
-    private String createToken(Map<String, Object> claims, String subject, Long expiration) {
+    public Instant nextRefreshTokenExpiry() {
+        return Instant.now().plusMillis(refreshTokenExpiration);
+    }
+
+    private String createToken(Map<String, Object> claims, String subject, String tokenId, Instant expiresAt) {
+        JwtKeyRing.SigningKey signingKey = keyRing.activeKey();
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.getKid())
                 .setClaims(claims)
+                .setId(tokenId)
                 .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date())
+                .setExpiration(Date.from(expiresAt))
+                .signWith(signingKey.getPrivateKey(), signingKey.getAlgorithm())
                 .compact();
     }
 
-    public Boolean validateToken(String token) {
-        try {
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            return false;
+    /**
+     * Parses and verifies the token exactly once. Signature and expiry are both
+     * checked by the parser, so callers can trust every field of the result.
+     * Repeat presentations of the same token are served from {@link VerifiedTokenCache};
+     * revocation is checked on every call so a cached token cannot outlive its logout.
+     * A token of any other type than {@code expectedType} is rejected.
+     */
+    public VerifiedToken verify(String token, TokenType expectedType) {
+        VerifiedToken verified = tokenCache.get(token, this::parse);
+        if (verified.getType() != expectedType) {
+            throw new InvalidTokenException("Invalid/Expired token");
         }
+        if (revocationService.isRevoked(verified.getTokenId())) {
+            tokenCache.invalidate(token);
+            throw new InvalidTokenException("Token has been revoked");
+        }
+        return verified;
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public void revoke(VerifiedToken token) {
+        revocationService.revoke(token.getTokenId(), token.getExpiresAt());
     }
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    private VerifiedToken parse(String token) {
+        try {
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            if (claims.getExpiration() == null) {
+                throw new InvalidTokenException("Token has no expiry");
+            }
+            return VerifiedToken.builder()
+                    .tokenId(claims.getId())
+                    .subject(claims.getSubject())
+                    .role(claims.get(ClaimsEnum.ROLE.getValue(), String.class))
+                    .userId(claims.get(ClaimsEnum.USER_ID.getValue(), Long.class))
+                    .familyId(claims.get(ClaimsEnum.FAMILY.getValue(), String.class))
+                    .type(TokenType.of(claims))
+                    .issuedAt(claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null)
+                    .expiresAt(claims.getExpiration().toInstant())
+                    .build();
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidTokenException("Invalid/Expired token");
+        }
     }
 
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public Boolean validateToken(String token) {
+        try {
+            verify(token, TokenType.ACCESS);
+            return true;
+        } catch (InvalidTokenException e) {
+            return false;
+        }
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
+    private class KeyRingResolver extends SigningKeyResolverAdapter {
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        @Override
+        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            JwtKeyRing.SigningKey key = keyRing.findKey(header.getKeyId());
+            // Also pins the algorithm to the key, so a token cannot pick its own verification scheme
+            if (key == null || !key.getAlgorithm().getValue().equals(header.getAlgorithm())) {
+                throw new JwtException("Unknown signing key: " + header.getKeyId());
+            }
+            return key.getPublicKey();
+        }
     }
-} 
\ No newline at end of file
+}
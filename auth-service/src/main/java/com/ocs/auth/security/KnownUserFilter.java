@@ -0,0 +1,151 @@
+package com.ocs.auth.security;
+
+import com.ocs.auth.util.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+
+/**
+ * Bloom filters over every existing username and email. A miss is definitive, so logins and
+ * availability checks for accounts that do not exist never reach the database. Users
+ * created and emails changed on this replica are added as they are written, those written
+ * elsewhere are pulled in by polling {@code updated_at}. Deleted users and replaced emails
+ * linger as false positives until the periodic rebuild, which only costs the lookup the
+ * filter would have saved.
+ */
+@Slf4j
+@Component
+public class KnownUserFilter {
+
+    // Overlap between polls so rows committed slightly out of updated_at order are not skipped
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(5);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+
+    // Null until the first rebuild; every check passes through to the database until then
+    private volatile Filters filters;
+    private volatile Timestamp lastUpdatedAt;
+
+    public KnownUserFilter(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            @Value("${application.security.user-filter.expected-users:1000000}") long expectedUsers,
+            @Value("${application.security.user-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        // Stream the table instead of buffering it; PostgreSQL only honours this inside a transaction
+        this.jdbcTemplate.setFetchSize(1000);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public boolean mightContainUsername(String username) {
+        Filters current = filters;
+        return current == null || current.usernames.mightContain(username);
+    }
+
+    public boolean mightContainEmail(String email) {
+        Filters current = filters;
+        return current == null || current.emails.mightContain(email);
+    }
+
+    public void add(String username, String email) {
+        Filters current = filters;
+        if (current != null) {
+            current.add(username, email);
+        }
+    }
+
+    /**
+     * Adds the user once the current transaction commits, or right away outside one, so a
+     * rolled-back change never enters the filter.
+     */
+    public void addAfterCommit(String username, String email) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(username, email);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(username, email);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${application.security.user-filter.sync-interval:PT1S}",
+            initialDelayString = "${application.security.user-filter.sync-interval:PT1S}")
+    public void syncChangedUsers() {
+        Filters current = filters;
+        Timestamp since = lastUpdatedAt;
+        if (current == null || since == null) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(
+                "select username, email, updated_at from users where updated_at > ?",
+                resultSet -> {
+                    current.add(resultSet.getString(1), resultSet.getString(2));
+                    advance(resultSet.getTimestamp(3));
+                },
+                new Timestamp(since.getTime() - SYNC_OVERLAP.toMillis())));
+    }
+
+    // Runs once the schema is migrated; also drops deleted users, which a Bloom filter cannot forget
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${application.security.user-filter.rebuild-interval:PT6H}",
+            initialDelayString = "${application.security.user-filter.rebuild-interval:PT6H}")
+    public void rebuild() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Long count = jdbcTemplate.queryForObject("select count(*) from users", Long.class);
+                Filters rebuilt = new Filters(Math.max(expectedUsers, (count != null ? count : 0) * 2), falsePositiveRate);
+                jdbcTemplate.query("select username, email, updated_at from users", resultSet -> {
+                    rebuilt.add(resultSet.getString(1), resultSet.getString(2));
+                    advance(resultSet.getTimestamp(3));
+                });
+                filters = rebuilt;
+                log.debug("Rebuilt known user filter with {} users", count);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not rebuild known user filter: {}", e.getMessage());
+        }
+    }
+
+    private void advance(Timestamp updatedAt) {
+        Timestamp last = lastUpdatedAt;
+        if (last == null || updatedAt.after(last)) {
+            lastUpdatedAt = updatedAt;
+        }
+    }
+
+    private static final class Filters {
+        private final BloomFilter usernames;
+        private final BloomFilter emails;
+
+        private Filters(long expectedInsertions, double falsePositiveRate) {
+            this.usernames = new BloomFilter(expectedInsertions, falsePositiveRate);
+            this.emails = new BloomFilter(expectedInsertions, falsePositiveRate);
+        }
+
+        private void add(String username, String email) {
+            usernames.put(username);
+            emails.put(email);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.ocs.auth.security;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Arrays;
+
+/**
+ * Password hashing algorithms the service can encode with. The id is stored as the
+ * {@code {id}} prefix of every hash, and each algorithm embeds its own cost in the hash,
+ * so a new cost or algorithm can be rolled out without invalidating existing passwords.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum PasswordHashAlgorithm {
+
+    // Cost is the log2 work factor; each step doubles the hashing time
+    BCRYPT("bcrypt", 10, 31) {
+        @Override
+        public PasswordEncoder encoder(int cost) {
+            return new BCryptPasswordEncoder(cost);
+        }
+
+        @Override
+        double costGrowth(int cost) {
+            return 2.0;
+        }
+    },
+
+    // Argon2id with the OWASP minimum memory of 19 MiB; cost is the iteration count
+    ARGON2("argon2", 2, 64) {
+        @Override
+        public PasswordEncoder encoder(int cost) {
+            return new Argon2PasswordEncoder(16, 32, 1, 19 * 1024, cost);
+        }
+
+        @Override
+        double costGrowth(int cost) {
+            return (cost + 1) / (double) cost;
+        }
+    };
+
+    private final String id;
+    private final int minimumCost;
+    private final int maximumCost;
+
+    public abstract PasswordEncoder encoder(int cost);
+
+    /**
+     * Factor by which hashing time grows when the cost is raised by one from {@code cost}.
+     */
+    abstract double costGrowth(int cost);
+
+    public static PasswordHashAlgorithm fromId(String id) {
+        return Arrays.stream(values())
+                .filter(algorithm -> algorithm.id.equalsIgnoreCase(id))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported password hash algorithm: " + id));
+    }
+}
@@ -0,0 +1,47 @@
+package com.ocs.auth.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Picks the highest cost whose hashing time stays within a target on the current hardware.
+ * The result never drops below the algorithm's minimum, so fast machines get stronger
+ * hashes and slow machines do not get weaker ones.
+ */
+@Slf4j
+public final class PasswordHashCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "calibration-Sample-password-1";
+    private static final int SAMPLES = 3;
+
+    private PasswordHashCalibrator() {
+    }
+
+    public static int calibrate(PasswordHashAlgorithm algorithm, Duration target) {
+        int cost = algorithm.getMinimumCost();
+        long elapsed = measure(algorithm, cost);
+        while (cost < algorithm.getMaximumCost()
+                && elapsed * algorithm.costGrowth(cost) <= target.toNanos()) {
+            cost++;
+            elapsed = measure(algorithm, cost);
+        }
+        log.info("Calibrated {} password hashing to cost {} ({} ms per hash, target {} ms)",
+                algorithm.getId(), cost, Duration.ofNanos(elapsed).toMillis(), target.toMillis());
+        return cost;
+    }
+
+    // Average of a few runs after a warm-up, so JIT compilation does not skew the first sample
+    private static long measure(PasswordHashAlgorithm algorithm, int cost) {
+        PasswordEncoder encoder = algorithm.encoder(cost);
+        encoder.encode(SAMPLE_PASSWORD);
+        long start = System.nanoTime();
+        for (int i = 0; i < SAMPLES; i++) {
+            encoder.encode(SAMPLE_PASSWORD);
+        }
+        long elapsed = (System.nanoTime() - start) / SAMPLES;
+        log.debug("{} cost {}: {} ms per hash", algorithm.getId(), cost, Duration.ofNanos(elapsed).toMillis());
+        return elapsed;
+    }
+}
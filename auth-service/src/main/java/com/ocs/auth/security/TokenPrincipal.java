@@ -0,0 +1,25 @@
+package com.ocs.auth.security;
+
+import com.ocs.auth.model.Role;
+import lombok.Value;
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * Lightweight principal built straight from verified token claims, used when the
+ * filter runs in stateless mode and does not load the user from the database.
+ */
+@Value
+public class TokenPrincipal implements AuthenticatedPrincipal {
+    String username;
+    Role role;
+    Long userId;
+
+    public static TokenPrincipal from(VerifiedToken token) {
+        return new TokenPrincipal(token.getSubject(), Role.fromString(token.getRole()), token.getUserId());
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -0,0 +1,37 @@
+package com.ocs.auth.security;
+
+import com.ocs.auth.enums.ClaimsEnum;
+import io.jsonwebtoken.Claims;
+
+/**
+ * What a token may be used for, carried in the {@code typ} claim. Refresh tokens are
+ * long-lived and must never be accepted where an access token is expected.
+ */
+public enum TokenType {
+    ACCESS("access"),
+    REFRESH("refresh");
+
+    private final String value;
+
+    TokenType(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public static TokenType of(Claims claims) {
+        String type = claims.get(ClaimsEnum.TYPE.getValue(), String.class);
+        if (type == null) {
+            // Issued before the claim existed: only refresh tokens carry a family
+            return claims.get(ClaimsEnum.FAMILY.getValue()) != null ? REFRESH : ACCESS;
+        }
+        for (TokenType candidate : values()) {
+            if (candidate.value.equals(type)) {
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException("Unknown token type: " + type);
+    }
+}
@@ -0,0 +1,22 @@
+package com.ocs.auth.security;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Immutable view of a JWT whose signature and expiry have already been checked.
+ */
+@Value
+@Builder
+public class VerifiedToken {
+    String tokenId;
+    String subject;
+    String role;
+    Long userId;
+    String familyId;
+    TokenType type;
+    Instant issuedAt;
+    Instant expiresAt;
+}
@@ -0,0 +1,58 @@
+package com.ocs.auth.security.revocation;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-local stand-in for single-node runs and tests. Revocations are not shared between replicas.
+ */
+@Component
+@ConditionalOnProperty(name = "application.security.revocation.store", havingValue = "memory")
+public class InMemoryRevocationStore implements RevocationStore {
+
+    private final Map<String, Entry> revoked = new ConcurrentHashMap<>();
+
+    @Override
+    public void revoke(String tokenId, Instant expiresAt) {
+        revoked.put(tokenId, new Entry(expiresAt, Instant.now()));
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        Entry entry = revoked.get(tokenId);
+        return entry != null && entry.expiresAt().isAfter(Instant.now());
+    }
+
+    @Override
+    public List<String> findRevokedSince(Instant since) {
+        return revoked.entrySet().stream()
+                .filter(e -> e.getValue().revokedAt().isAfter(since))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    @Override
+    public List<String> findActive() {
+        Instant now = Instant.now();
+        return revoked.entrySet().stream()
+                .filter(e -> e.getValue().expiresAt().isAfter(now))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    @Override
+    public int purgeExpired() {
+        Instant now = Instant.now();
+        int before = revoked.size();
+        revoked.values().removeIf(entry -> !entry.expiresAt().isAfter(now));
+        return before - revoked.size();
+    }
+
+    private record Entry(Instant expiresAt, Instant revokedAt) {
+    }
+}
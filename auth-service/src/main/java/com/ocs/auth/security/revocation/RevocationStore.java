@@ -0,0 +1,21 @@
+package com.ocs.auth.security.revocation;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Durable record of revoked token ids, shared by every auth-service replica.
+ * Entries are only needed until the token itself expires.
+ */
+public interface RevocationStore {
+
+    void revoke(String tokenId, Instant expiresAt);
+
+    boolean isRevoked(String tokenId);
+
+    List<String> findRevokedSince(Instant since);
+
+    List<String> findActive();
+
+    int purgeExpired();
+}
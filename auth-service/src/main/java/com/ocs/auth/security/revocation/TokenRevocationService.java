@@ -0,0 +1,93 @@
+package com.ocs.auth.security.revocation;
+
+import com.ocs.auth.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Token denylist with an in-memory Bloom filter in front of the {@link RevocationStore}.
+ * A token that was never revoked, the common case, is rejected by the filter without
+ * any I/O; only filter hits are confirmed against the store. Revocations made on other
+ * replicas are pulled into the local filter on a short polling interval.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    // Overlap between polls so clock skew between replicas cannot hide a revocation
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(5);
+
+    private final RevocationStore revocationStore;
+    private final long expectedRevocations;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+    private volatile Instant lastSync;
+
+    public TokenRevocationService(
+            RevocationStore revocationStore,
+            @Value("${application.security.revocation.expected-revocations:100000}") long expectedRevocations,
+            @Value("${application.security.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.revocationStore = revocationStore;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    @PostConstruct
+    void init() {
+        rebuild();
+    }
+
+    public void revoke(String tokenId, Instant expiresAt) {
+        if (tokenId == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        revocationStore.revoke(tokenId, expiresAt);
+        filter.put(tokenId);
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !filter.mightContain(tokenId)) {
+            return false;
+        }
+        return revocationStore.isRevoked(tokenId);
+    }
+
+    @Scheduled(fixedDelayString = "${application.security.revocation.sync-interval:PT5S}")
+    public void syncFromStore() {
+        Instant since = lastSync.minus(SYNC_OVERLAP);
+        Instant now = Instant.now();
+        List<String> revoked = revocationStore.findRevokedSince(since);
+        BloomFilter current = filter;
+        revoked.forEach(current::put);
+        lastSync = now;
+    }
+
+    // Bloom filters cannot forget, so expired ids are dropped by rebuilding from the store
+    @Scheduled(fixedDelayString = "${application.security.revocation.rebuild-interval:PT1H}",
+            initialDelayString = "${application.security.revocation.rebuild-interval:PT1H}")
+    public void rebuild() {
+        Instant now = Instant.now();
+        List<String> active = revocationStore.findActive();
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, active.size() * 2L), falsePositiveRate);
+        active.forEach(rebuilt::put);
+        filter = rebuilt;
+        lastSync = now;
+        log.debug("Rebuilt revocation filter with {} active entries", active.size());
+    }
+
+    @Scheduled(fixedDelayString = "${application.security.revocation.purge-interval:PT15M}")
+    public void purgeExpired() {
+        int purged = revocationStore.purgeExpired();
+        if (purged > 0) {
+            log.info("Purged {} expired token revocations", purged);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.ocs.auth.security.throttle;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-local counters. Each key is a single {@link AtomicLong} packing the window index
+ * with the current and previous counts, so updates are lock-free CAS loops. The cache is
+ * size-bounded and drops keys idle for two windows, keeping memory flat however many
+ * distinct usernames and addresses an attack cycles through.
+ */
+@Component
+@ConditionalOnProperty(name = "application.security.login-throttle.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryLoginAttemptStore implements LoginAttemptStore {
+
+    private static final int COUNT_BITS = 16;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final Cache<String, AtomicLong> counters;
+
+    public InMemoryLoginAttemptStore(
+            @Value("${application.security.login-throttle.window:PT15M}") Duration window,
+            @Value("${application.security.login-throttle.max-keys:200000}") long maxKeys) {
+        this.counters = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(window.multipliedBy(2))
+                .build();
+    }
+
+    @Override
+    public WindowCounts get(String key, long window) {
+        AtomicLong counter = counters.getIfPresent(key);
+        return counter == null ? WindowCounts.EMPTY : countsAt(counter.get(), window);
+    }
+
+    @Override
+    public void increment(String key, long window) {
+        AtomicLong counter = counters.get(key, k -> new AtomicLong());
+        counter.updateAndGet(state -> {
+            WindowCounts counts = countsAt(state, window);
+            return pack(window, Math.min(counts.current() + 1, (int) COUNT_MASK), counts.previous());
+        });
+    }
+
+    @Override
+    public void reset(String key) {
+        counters.invalidate(key);
+    }
+
+    // Layout: window index in the high 32 bits, then current count, then previous count
+    private static long pack(long window, int current, int previous) {
+        return (window << (2 * COUNT_BITS)) | ((long) current << COUNT_BITS) | previous;
+    }
+
+    private static WindowCounts countsAt(long state, long window) {
+        long storedWindow = state >>> (2 * COUNT_BITS);
+        int current = (int) ((state >>> COUNT_BITS) & COUNT_MASK);
+        int previous = (int) (state & COUNT_MASK);
+        if (storedWindow == window) {
+            return new WindowCounts(current, previous);
+        }
+        if (storedWindow == window - 1) {
+            return new WindowCounts(0, current);
+        }
+        return WindowCounts.EMPTY;
+    }
+}
@@ -0,0 +1,69 @@
+package com.ocs.auth.security.throttle;
+
+import com.ocs.auth.model.LoginAttemptWindow;
+import com.ocs.auth.repository.LoginAttemptWindowRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Counters shared by every replica through the database, so an attacker spreading attempts
+ * across instances still hits the same limit.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.security.login-throttle.store", havingValue = "jpa")
+public class JpaLoginAttemptStore implements LoginAttemptStore {
+
+    private final LoginAttemptWindowRepository repository;
+    private final Duration window;
+
+    public JpaLoginAttemptStore(LoginAttemptWindowRepository repository,
+                                @Value("${application.security.login-throttle.window:PT15M}") Duration window) {
+        this.repository = repository;
+        this.window = window;
+    }
+
+    // Read-write so the counters come from the primary rather than a lagging replica
+    @Override
+    @Transactional
+    public WindowCounts get(String key, long windowIndex) {
+        int current = 0;
+        int previous = 0;
+        for (LoginAttemptWindow row : repository.findByCounterKeyAndWindowIndexIn(key, List.of(windowIndex, windowIndex - 1))) {
+            if (row.getWindowIndex() == windowIndex) {
+                current = row.getAttempts();
+            } else {
+                previous = row.getAttempts();
+            }
+        }
+        return new WindowCounts(current, previous);
+    }
+
+    @Override
+    public void increment(String key, long windowIndex) {
+        // A bucket is still read as the previous window until two windows after it opened
+        Instant expiresAt = Instant.ofEpochMilli((windowIndex + 2) * window.toMillis());
+        repository.increment(key, windowIndex, expiresAt);
+    }
+
+    @Override
+    public void reset(String key) {
+        repository.deleteByKey(key);
+    }
+
+    @Scheduled(fixedDelayString = "${application.security.login-throttle.purge-interval:PT5M}")
+    public void purgeExpired() {
+        int purged = repository.deleteExpired(Instant.now());
+        if (purged > 0) {
+            log.debug("Purged {} expired login attempt windows", purged);
+        }
+    }
+}
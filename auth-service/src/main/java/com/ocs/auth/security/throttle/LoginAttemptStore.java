@@ -0,0 +1,21 @@
+package com.ocs.auth.security.throttle;
+
+/**
+ * Failed-login counters bucketed into fixed windows. The throttle blends the current and
+ * previous window into a sliding estimate, so stores only ever need those two buckets.
+ */
+public interface LoginAttemptStore {
+
+    /**
+     * Returns the failures counted for {@code key} in {@code window} and the window before it.
+     */
+    WindowCounts get(String key, long window);
+
+    void increment(String key, long window);
+
+    void reset(String key);
+
+    record WindowCounts(int current, int previous) {
+        public static final WindowCounts EMPTY = new WindowCounts(0, 0);
+    }
+}
@@ -0,0 +1,96 @@
+package com.ocs.auth.security.throttle;
+
+import com.ocs.auth.exception.LoginThrottledException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Limits failed logins per username and per client address over a sliding window. The
+ * check runs before the user lookup and password hash, so throttled attempts cost only
+ * a counter read. The sliding count is approximated from two fixed windows, weighting the
+ * previous one by how much of it still overlaps the window ending now.
+ */
+@Component
+public class LoginThrottle {
+
+    private final LoginAttemptStore store;
+    private final boolean enabled;
+    private final long windowMillis;
+    private final int maxFailuresPerUsername;
+    private final int maxFailuresPerAddress;
+
+    public LoginThrottle(
+            LoginAttemptStore store,
+            @Value("${application.security.login-throttle.enabled:true}") boolean enabled,
+            @Value("${application.security.login-throttle.window:PT15M}") Duration window,
+            @Value("${application.security.login-throttle.max-failures-per-username:10}") int maxFailuresPerUsername,
+            @Value("${application.security.login-throttle.max-failures-per-address:100}") int maxFailuresPerAddress) {
+        this.store = store;
+        this.enabled = enabled;
+        this.windowMillis = window.toMillis();
+        this.maxFailuresPerUsername = maxFailuresPerUsername;
+        this.maxFailuresPerAddress = maxFailuresPerAddress;
+    }
+
+    public void checkAllowed(String username, String clientAddress) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        check(usernameKey(username), maxFailuresPerUsername, now);
+        if (clientAddress != null) {
+            check(addressKey(clientAddress), maxFailuresPerAddress, now);
+        }
+    }
+
+    public void recordFailure(String username, String clientAddress) {
+        if (!enabled) {
+            return;
+        }
+        long window = System.currentTimeMillis() / windowMillis;
+        store.increment(usernameKey(username), window);
+        if (clientAddress != null) {
+            store.increment(addressKey(clientAddress), window);
+        }
+    }
+
+    // Only the username counter is cleared; a shared address keeps its history
+    public void recordSuccess(String username) {
+        if (enabled) {
+            store.reset(usernameKey(username));
+        }
+    }
+
+    private void check(String key, int limit, long now) {
+        long window = now / windowMillis;
+        long elapsed = now - window * windowMillis;
+        LoginAttemptStore.WindowCounts counts = store.get(key, window);
+        double overlap = 1 - elapsed / (double) windowMillis;
+        if (counts.previous() * overlap + counts.current() >= limit) {
+            throw new LoginThrottledException("Too many failed login attempts, please retry later",
+                    retryAfterSeconds(counts, limit, elapsed));
+        }
+    }
+
+    // Time until the sliding count decays below the limit if no further failures arrive
+    private long retryAfterSeconds(LoginAttemptStore.WindowCounts counts, int limit, long elapsed) {
+        long waitMillis;
+        if (counts.current() >= limit) {
+            waitMillis = (windowMillis - elapsed) + (long) (windowMillis * (1 - limit / (double) counts.current()));
+        } else {
+            waitMillis = (long) (windowMillis * (1 - (limit - counts.current()) / (double) counts.previous())) - elapsed;
+        }
+        return Math.max(1, (waitMillis + 999) / 1000);
+    }
+
+    private static String usernameKey(String username) {
+        return "user:" + username.toLowerCase(Locale.ROOT);
+    }
+
+    private static String addressKey(String clientAddress) {
+        return "addr:" + clientAddress;
+    }
+}
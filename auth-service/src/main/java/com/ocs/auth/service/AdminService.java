@@ -1,49 +1,153 @@
 package com.ocs.auth.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ocs.auth.dto.BulkOperationResponse;
+import com.ocs.auth.dto.BulkUserRequest;
+import com.ocs.auth.dto.UserPageResponse;
 import com.ocs.auth.dto.UserResponse;
+import com.ocs.auth.dto.UserSearchCriteria;
+import com.ocs.auth.enums.UserSortFieldEnum;
+import com.ocs.auth.exception.AuthException;
 import com.ocs.auth.exception.UserNotFoundException;
 import com.ocs.auth.model.Role;
 import com.ocs.auth.model.User;
 import com.ocs.auth.repository.UserRepository;
+import com.ocs.auth.util.ETags;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class AdminService {
 
+    private static final List<Role> LISTED_ROLES = List.of(Role.USER, Role.ADMIN);
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int BULK_CHUNK_SIZE = 1000;
+    // Trigram indexes cannot narrow down shorter substrings
+    private static final int MIN_SUBSTRING_LENGTH = 3;
+
     private final UserRepository userRepository;
     private final AuthService authService;
+    private final ObjectMapper objectMapper;
+    private final UserCacheService userCacheService;
+
+    @Transactional(readOnly = true)
+    public UserPageResponse searchUsers(String query, boolean substring, Role role, String cursor, int size) {
+        String search = query != null ? query.trim() : "";
+        if (search.isEmpty() || (substring && search.length() < MIN_SUBSTRING_LENGTH)) {
+            throw new AuthException("Search term must have at least " + (substring ? MIN_SUBSTRING_LENGTH : 1)
+                    + " characters", HttpStatus.BAD_REQUEST, "INVALID_SEARCH");
+        }
+        return getUsers(role, null, null, search, substring, UserSortFieldEnum.USERNAME.getValue(), true, cursor, size);
+    }
+
+    @Transactional(readOnly = true)
+    public UserPageResponse getUsers(Role role, LocalDateTime createdAfter, LocalDateTime createdBefore,
+                                     String sort, boolean ascending, String cursor, int size) {
+        return getUsers(role, createdAfter, createdBefore, null, false, sort, ascending, cursor, size);
+    }
 
-    public List<UserResponse> getAllUsers() {
-        return userRepository.findAllByRoleIn(List.of(Role.USER, Role.ADMIN)).stream()
-                .map(this::convertToUserResponse)
-                .collect(Collectors.toList());
+    private UserPageResponse getUsers(Role role, LocalDateTime createdAfter, LocalDateTime createdBefore,
+                                      String search, boolean substring, String sort, boolean ascending,
+                                      String cursor, int size) {
+        UserSortFieldEnum sortField;
+        try {
+            sortField = UserSortFieldEnum.fromString(sort);
+        } catch (IllegalArgumentException e) {
+            throw new AuthException(e.getMessage(), HttpStatus.BAD_REQUEST, "INVALID_SORT");
+        }
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        UserSearchCriteria.UserSearchCriteriaBuilder criteria = UserSearchCriteria.builder()
+                .roles(listedRoles(role))
+                .createdAfter(createdAfter)
+                .createdBefore(createdBefore)
+                .search(search)
+                .substring(substring)
+                .sort(sortField)
+                .ascending(ascending)
+                // One extra row tells whether another page follows
+                .limit(limit + 1);
+        if (cursor != null && !cursor.isEmpty()) {
+            decodeCursor(cursor, sortField, criteria);
+        }
+
+        List<UserResponse> users = userRepository.findPage(criteria.build());
+        boolean hasNext = users.size() > limit;
+        List<UserResponse> page = hasNext ? users.subList(0, limit) : users;
+        return UserPageResponse.builder()
+                .users(page)
+                .nextCursor(hasNext ? encodeCursor(page.get(page.size() - 1), sortField) : null)
+                .build();
     }
 
+    /**
+     * Writes every listed user as NDJSON through a server-side cursor. Rows are projected
+     * straight into DTOs, so nothing accumulates in the persistence context and memory
+     * stays constant however many users there are.
+     */
+    @Transactional(readOnly = true)
+    public void exportUsers(Role role, OutputStream output) throws IOException {
+        try (Stream<UserResponse> users = userRepository.streamResponsesByRoleIn(listedRoles(role))) {
+            Iterator<UserResponse> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                output.write(objectMapper.writeValueAsBytes(iterator.next()));
+                output.write('\n');
+            }
+        }
+        output.flush();
+    }
+
+    @Transactional(readOnly = true)
     public UserResponse getUserById(Long userId) {
-        User user = userRepository.findById(userId)
+        return userRepository.findResponseById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+    }
+
+    @Transactional(readOnly = true)
+    public String getUserETag(Long userId) {
+        return userRepository.findUpdatedAtById(userId)
+                .map(updatedAt -> ETags.fromVersion(userId, updatedAt))
                 .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
-        return convertToUserResponse(user);
     }
 
     public UserResponse updateUserRole(Long userId, String role) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
         
-        // Only allow updating to USER or ADMIN roles
-        if (!role.equals("USER") && !role.equals("ADMIN")) {
-            throw new IllegalArgumentException("Invalid role. Only USER and ADMIN roles are allowed.");
-        }
-        
-        user.setRole(role.equals("ADMIN") ? Role.ADMIN : Role.USER);
+        user.setRole(assignableRole(role));
         user = userRepository.save(user);
-        return convertToUserResponse(user);
+        userCacheService.evict(userId);
+        return UserResponse.from(user);
+    }
+
+    /**
+     * Changes the role of every selected user with one UPDATE per chunk of ids. Each chunk
+     * commits on its own, so a large selection never holds row locks for long.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkOperationResponse updateUsersRole(BulkUserRequest request, String role) {
+        Role target = assignableRole(role);
+        LocalDateTime now = LocalDateTime.now();
+        return bulkResponse(forEachChunk(request, ids -> userRepository.updateRoleByIdIn(ids, target, now)));
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkOperationResponse deleteUsers(BulkUserRequest request) {
+        return bulkResponse(forEachChunk(request, userRepository::deleteByIdIn));
     }
 
     public void deleteUser(Long userId) {
@@ -51,18 +155,89 @@ public class AdminService {
             throw new UserNotFoundException("User not found with id: " + userId);
         }
         userRepository.deleteById(userId);
+        userCacheService.evictDeleted(userId);
     }
 
-    private UserResponse convertToUserResponse(User user) {
-        return UserResponse.builder()
-                .id(user.getId())
-                .username(user.getUsername())
-                .email(user.getEmail())
-                .firstName(user.getFirstName())
-                .lastName(user.getLastName())
-                .role(user.getRole())
-                .createdAt(user.getCreatedAt())
-                .updatedAt(user.getUpdatedAt())
-                .build();
+    // Only allow updating to USER or ADMIN roles
+    private Role assignableRole(String role) {
+        if (!role.equals("USER") && !role.equals("ADMIN")) {
+            throw new IllegalArgumentException("Invalid role. Only USER and ADMIN roles are allowed.");
+        }
+        return role.equals("ADMIN") ? Role.ADMIN : Role.USER;
+    }
+
+    private BulkOperationResponse bulkResponse(long affected) {
+        // Bulk statements bypass the entities, so cached copies anywhere must be dropped
+        if (affected > 0) {
+            userCacheService.evictAll();
+        }
+        return new BulkOperationResponse(affected);
+    }
+
+    private long forEachChunk(BulkUserRequest request, ToIntFunction<List<Long>> operation) {
+        long affected = 0;
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            List<Long> ids = request.getIds().stream().distinct().toList();
+            for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+                affected += operation.applyAsInt(ids.subList(from, Math.min(from + BULK_CHUNK_SIZE, ids.size())));
+            }
+            return affected;
+        }
+        if (request.getRole() == null && request.getCreatedAfter() == null && request.getCreatedBefore() == null) {
+            throw new AuthException("Either ids or at least one filter is required", HttpStatus.BAD_REQUEST,
+                    "EMPTY_SELECTION");
+        }
+
+        // Walk the filter by id so each chunk is a bounded index range, not a growing OFFSET
+        UserSearchCriteria.UserSearchCriteriaBuilder criteria = UserSearchCriteria.builder()
+                .roles(listedRoles(request.getRole()))
+                .createdAfter(request.getCreatedAfter())
+                .createdBefore(request.getCreatedBefore())
+                .limit(BULK_CHUNK_SIZE);
+        List<Long> ids;
+        do {
+            ids = userRepository.findIds(criteria.build());
+            if (!ids.isEmpty()) {
+                affected += operation.applyAsInt(ids);
+                criteria.afterId(ids.get(ids.size() - 1));
+            }
+        } while (ids.size() == BULK_CHUNK_SIZE);
+        return affected;
+    }
+
+    // SUPER_ADMIN is never listed, even when asked for explicitly
+    private List<Role> listedRoles(Role role) {
+        if (role == null) {
+            return LISTED_ROLES;
+        }
+        return LISTED_ROLES.contains(role) ? List.of(role) : List.of();
+    }
+
+    // Cursor is "<last sort value>|<last id>", base64url-encoded so clients treat it as opaque
+    private String encodeCursor(UserResponse last, UserSortFieldEnum sortField) {
+        String value = switch (sortField) {
+            case ID -> "";
+            case USERNAME -> last.getUsername();
+            case CREATED_AT -> last.getCreatedAt().toString();
+        };
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((value + '|' + last.getId()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void decodeCursor(String cursor, UserSortFieldEnum sortField,
+                              UserSearchCriteria.UserSearchCriteriaBuilder criteria) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf('|');
+            String value = decoded.substring(0, separator);
+            criteria.afterId(Long.parseLong(decoded.substring(separator + 1)));
+            criteria.afterValue(switch (sortField) {
+                case ID -> null;
+                case USERNAME -> value;
+                case CREATED_AT -> LocalDateTime.parse(value);
+            });
+        } catch (RuntimeException e) {
+            throw new AuthException("Invalid cursor", HttpStatus.BAD_REQUEST, "INVALID_CURSOR");
+        }
     }
 } 
\ No newline at end of file
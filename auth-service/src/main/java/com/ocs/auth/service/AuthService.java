@@ -1,24 +1,36 @@
 package com.ocs.auth.service;
 
 import com.ocs.auth.dto.AuthResponse;
+import com.ocs.auth.dto.AvailabilityResponse;
 import com.ocs.auth.dto.LoginRequest;
 import com.ocs.auth.dto.RegisterRequest;
 import com.ocs.auth.enums.ResponseKeyEnum;
 import com.ocs.auth.exception.UserAlreadyExistsException;
 import com.ocs.auth.exception.UserNotFoundException;
 import com.ocs.auth.exception.InvalidTokenException;
+import com.ocs.auth.exception.ThrottledException;
 import com.ocs.auth.model.Role;
 import com.ocs.auth.model.User;
 import com.ocs.auth.repository.UserRepository;
+import com.ocs.auth.security.CurrentUserHolder;
 import com.ocs.auth.security.JwtService;
+import com.ocs.auth.security.KnownUserFilter;
+import com.ocs.auth.security.TokenPrincipal;
+import com.ocs.auth.security.TokenType;
+import com.ocs.auth.security.VerifiedToken;
+import com.ocs.auth.security.throttle.LoginThrottle;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.AuthenticationManager;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsChecker;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
@@ -32,12 +44,20 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
-    private final AuthenticationManager authenticationManager;
+    private final RefreshTokenService refreshTokenService;
+    private final PasswordUpgradeService passwordUpgradeService;
+    private final LoginThrottle loginThrottle;
+    private final KnownUserFilter knownUserFilter;
+    private final CurrentUserHolder currentUserHolder;
 
+    private final UserDetailsChecker userDetailsChecker = new AccountStatusUserDetailsChecker();
+    private volatile String unknownUserPassword;
+
+    // Runs outside a transaction so hashing does not hold a connection and a constraint
+    // violation does not leave an outer transaction marked rollback-only
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse register(RegisterRequest request) {
         try {
-            validateUserDoesNotExist(request.getUsername(), request.getEmail());
-
             // Check if trying to create SUPER_ADMIN
             if (request.getRole() == Role.SUPER_ADMIN) {
                 throw new IllegalArgumentException("Cannot create SUPER_ADMIN role. Only one SUPER_ADMIN can exist.");
@@ -47,7 +67,7 @@ public class AuthService {
             if (request.getRole() == Role.ADMIN) {
                 // Get current user (if any) to check permissions
                 try {
-                    User currentUser = getCurrentUser();
+                    TokenPrincipal currentUser = getCurrentPrincipal();
                     if (currentUser.getRole() != Role.SUPER_ADMIN) {
                         throw new IllegalArgumentException("Only SUPER_ADMIN can create ADMIN users.");
                     }
@@ -68,7 +88,7 @@ public class AuthService {
                     .lastName(user.getLastName())
                     .role(user.getRole())
                     .build();
-        } catch (UserAlreadyExistsException e) {
+        } catch (UserAlreadyExistsException | ThrottledException e) {
             throw e;
         } catch (Exception e) {
             Map<String, String> details = new HashMap<>();
@@ -77,16 +97,28 @@ public class AuthService {
         }
     }
 
-    public AuthResponse login(LoginRequest request) {
+    // No surrounding transaction: the password check must not hold a database connection
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AuthResponse login(LoginRequest request, String clientAddress) {
         try {
-            Authentication authentication = authenticateUser(request.getUsername(), request.getPassword());
-            User user = findUserByUsername(request.getUsername());
-            return createAuthResponse(user);
+            loginThrottle.checkAllowed(request.getUsername(), clientAddress);
+            User user;
+            try {
+                user = authenticateUser(request.getUsername(), request.getPassword());
+            } catch (BadCredentialsException e) {
+                loginThrottle.recordFailure(request.getUsername(), clientAddress);
+                throw e;
+            }
+            loginThrottle.recordSuccess(request.getUsername());
+            if (passwordUpgradeService.needsUpgrade(user.getPassword())) {
+                passwordUpgradeService.upgrade(user.getId(), user.getPassword(), request.getPassword());
+            }
+            return createAuthResponse(user, refreshTokenService.issue(user));
         } catch (BadCredentialsException e) {
             Map<String, String> details = new HashMap<>();
             details.put(ResponseKeyEnum.USERNAME.getValue(), request.getUsername());
             throw new UserNotFoundException("Invalid username or password", details);
-        } catch (UserNotFoundException e) {
+        } catch (UserNotFoundException | ThrottledException e) {
             throw e;
         } catch (Exception e) {
             Map<String, String> details = new HashMap<>();
@@ -95,16 +127,13 @@ public class AuthService {
         }
     }
 
+    @Transactional(noRollbackFor = InvalidTokenException.class)
     public AuthResponse refreshToken(String refreshToken) {
         try {
-            if (!jwtService.validateToken(refreshToken)) {
-                throw new InvalidTokenException("Invalid/Expired refresh-token");
-            }
-
-            String username = jwtService.extractUsername(refreshToken);
-            User user = findUserByUsername(username);
+            VerifiedToken token = verifyRefreshToken(refreshToken);
+            User user = findUserByUsername(token.getSubject());
             
-            return createAuthResponse(user);
+            return createAuthResponse(user, refreshTokenService.rotate(token, user));
         } catch (InvalidTokenException e) {
             throw e;
         } catch (Exception e) {
@@ -114,6 +143,42 @@ public class AuthService {
         }
     }
 
+    /**
+     * Revokes whichever of the presented tokens are still valid, so a stolen copy stops
+     * working immediately instead of at expiry.
+     */
+    public void logout(String accessToken, String refreshToken) {
+        revoke(accessToken, TokenType.ACCESS);
+        revoke(refreshToken, TokenType.REFRESH);
+    }
+
+    private void revoke(String token, TokenType type) {
+        if (token == null) {
+            return;
+        }
+        try {
+            VerifiedToken verified = jwtService.verify(token, type);
+            jwtService.revoke(verified);
+            refreshTokenService.revokeFamily(verified.getFamilyId());
+        } catch (InvalidTokenException e) {
+            // Already invalid, expired or revoked: nothing to do
+        }
+    }
+
+    /**
+     * Reports whether a username and/or email can still be registered. The filter answers
+     * for names never seen; only possible matches are confirmed against the database.
+     */
+    @Transactional(readOnly = true)
+    public AvailabilityResponse checkAvailability(String username, String email) {
+        return AvailabilityResponse.builder()
+                .usernameAvailable(username == null ? null
+                        : !knownUserFilter.mightContainUsername(username) || !userRepository.existsByUsername(username))
+                .emailAvailable(email == null ? null
+                        : !knownUserFilter.mightContainEmail(email) || !userRepository.existsByEmail(email))
+                .build();
+    }
+
     public boolean validateToken(String token) {
         try {
             return jwtService.validateToken(token);
@@ -124,13 +189,31 @@ public class AuthService {
         }
     }
 
+    /**
+     * Returns the authenticated principal without touching the database. Use
+     * {@link #getCurrentUser()} only when the mutable {@link User} entity is needed.
+     */
+    public TokenPrincipal getCurrentPrincipal() {
+        Object principal = authenticatedPrincipal();
+        if (principal instanceof TokenPrincipal tokenPrincipal) {
+            return tokenPrincipal;
+        }
+        if (principal instanceof User user) {
+            return new TokenPrincipal(user.getUsername(), user.getRole(), user.getId());
+        }
+        throw new UserNotFoundException("No authenticated user found");
+    }
+
+    /**
+     * Returns the authenticated user's entity, loaded at most once per request. When the
+     * authentication filter already loaded it as the principal, that instance is reused.
+     */
     public User getCurrentUser() {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication == null || !authentication.isAuthenticated()) {
-                throw new UserNotFoundException("No authenticated user found");
+            if (authenticatedPrincipal() instanceof User user) {
+                return user;
             }
-            return findUserByUsername(authentication.getName());
+            return currentUserHolder.get(getCurrentPrincipal().getUsername(), this::findUserByUsername);
         } catch (UserNotFoundException e) {
             throw e;
         } catch (Exception e) {
@@ -140,10 +223,13 @@ public class AuthService {
         }
     }
 
+    /**
+     * Whether the current user holds {@code role} (a {@code ROLE_} name) or a role implying it.
+     */
     public boolean hasRole(String role) {
         try {
-            User currentUser = getCurrentUser();
-            return currentUser.getRole().getRoleName().equals(role);
+            Role required = Role.forRoleName(role);
+            return required != null && currentRole().implies(required);
         } catch (Exception e) {
             Map<String, String> details = new HashMap<>();
             details.put(ResponseKeyEnum.ERROR.getValue(), e.getMessage());
@@ -153,9 +239,10 @@ public class AuthService {
 
     public boolean hasAnyRole(String... roles) {
         try {
-            User currentUser = getCurrentUser();
+            Role current = currentRole();
             for (String role : roles) {
-                if (currentUser.getRole().getRoleName().equals(role)) {
+                Role required = Role.forRoleName(role);
+                if (required != null && current.implies(required)) {
                     return true;
                 }
             }
@@ -168,17 +255,48 @@ public class AuthService {
     }
 
     // Private helper methods
-    private void validateUserDoesNotExist(String username, String email) {
-        if (userRepository.findByUsername(username).isPresent()) {
-            Map<String, String> details = new HashMap<>();
+    private Object authenticatedPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            throw new UserNotFoundException("No authenticated user found");
+        }
+        return authentication.getPrincipal();
+    }
+
+    // Reads the role straight off the verified principal, without building a TokenPrincipal
+    private Role currentRole() {
+        Object principal = authenticatedPrincipal();
+        if (principal instanceof TokenPrincipal tokenPrincipal) {
+            return tokenPrincipal.getRole();
+        }
+        if (principal instanceof User user) {
+            return user.getRole();
+        }
+        throw new UserNotFoundException("No authenticated user found");
+    }
+
+    /**
+     * Maps a unique-constraint violation on insert to the field that clashed. Falls back to
+     * exists checks when the constraint name is unknown, e.g. on a schema created before
+     * the constraints were named; those only run on the failure path.
+     */
+    private UserAlreadyExistsException toUserAlreadyExists(DataIntegrityViolationException e, String username, String email) {
+        String constraint = e.getCause() instanceof ConstraintViolationException violation
+                ? violation.getConstraintName() : null;
+        boolean usernameTaken = User.USERNAME_CONSTRAINT.equalsIgnoreCase(constraint)
+                || (!User.EMAIL_CONSTRAINT.equalsIgnoreCase(constraint) && userRepository.existsByUsername(username));
+        Map<String, String> details = new HashMap<>();
+        if (usernameTaken) {
             details.put(ResponseKeyEnum.USERNAME.getValue(), username);
-            throw new UserAlreadyExistsException("Username already exists", details);
+            return new UserAlreadyExistsException("Username already exists", details);
         }
-        if (userRepository.findByEmail(email).isPresent()) {
-            Map<String, String> details = new HashMap<>();
+        if (User.EMAIL_CONSTRAINT.equalsIgnoreCase(constraint) || userRepository.existsByEmail(email)) {
             details.put(ResponseKeyEnum.EMAIL.getValue(), email);
-            throw new UserAlreadyExistsException("Email already in use", details);
+            return new UserAlreadyExistsException("Email already in use", details);
         }
+        details.put(ResponseKeyEnum.ERROR.getValue(), e.getMostSpecificCause().getMessage());
+        return new UserAlreadyExistsException("Registration failed", details);
     }
 
     private User createAndSaveUser(RegisterRequest request, Role role) {
@@ -190,19 +308,55 @@ public class AuthService {
                 .lastName(request.getLastName())
                 .role(role)
                 .build();
-        return userRepository.save(user);
+        try {
+            // Flush so the INSERT, and any constraint violation, happens here rather than at commit
+            User saved = userRepository.saveAndFlush(user);
+            knownUserFilter.add(saved.getUsername(), saved.getEmail());
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            throw toUserAlreadyExists(e, request.getUsername(), request.getEmail());
+        }
     }
 
-    private Authentication authenticateUser(String username, String password) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(username, password)
-        );
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        return authentication;
+    /**
+     * Loads the user once and checks the password against that row. Unknown usernames are
+     * still run through the encoder so response time does not reveal which accounts exist;
+     * those the known-user filter rules out skip the database lookup altogether.
+     */
+    private User authenticateUser(String username, String password) {
+        User user = knownUserFilter.mightContainUsername(username)
+                ? userRepository.findByUsername(username).orElse(null) : null;
+        if (user == null) {
+            passwordEncoder.matches(password, unknownUserPassword());
+            throw new BadCredentialsException("Bad credentials");
+        }
+        if (!passwordEncoder.matches(password, user.getPassword())) {
+            throw new BadCredentialsException("Bad credentials");
+        }
+        userDetailsChecker.check(user);
+        return user;
+    }
+
+    private String unknownUserPassword() {
+        String encoded = unknownUserPassword;
+        if (encoded == null) {
+            encoded = passwordEncoder.encode("userNotFoundPassword");
+            unknownUserPassword = encoded;
+        }
+        return encoded;
+    }
+
+    private VerifiedToken verifyRefreshToken(String refreshToken) {
+        try {
+            return jwtService.verify(refreshToken, TokenType.REFRESH);
+        } catch (InvalidTokenException e) {
+            throw new InvalidTokenException("Invalid/Expired refresh-token");
+        }
     }
 
+    // Token refresh and current-user lookups; evictions are replayed on every replica
     private User findUserByUsername(String username) {
-        return userRepository.findByUsername(username)
+        return userRepository.findCachedByUsername(username)
                 .orElseThrow(() -> {
                     Map<String, String> details = new HashMap<>();
                     details.put(ResponseKeyEnum.USERNAME.getValue(), username);
@@ -210,9 +364,8 @@ public class AuthService {
                 });
     }
 
-    private AuthResponse createAuthResponse(User user) {
+    private AuthResponse createAuthResponse(User user, String refreshToken) {
         String accessToken = jwtService.generateAccessToken(user);
-        String refreshToken = jwtService.generateRefreshToken(user);
         return AuthResponse.builder()
                 .token(accessToken)
                 .refreshToken(refreshToken)
@@ -0,0 +1,44 @@
+package com.ocs.auth.service;
+
+import com.ocs.auth.config.AsyncConfig;
+import com.ocs.auth.exception.ThrottledException;
+import com.ocs.auth.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Re-hashes passwords stored with an outdated algorithm or cost, using the raw password
+ * from a successful login. Runs off the request thread so the login does not pay for
+ * a second hash.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PasswordUpgradeService {
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final UserCacheService userCacheService;
+
+    public boolean needsUpgrade(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    @Async(AsyncConfig.PASSWORD_UPGRADE_EXECUTOR)
+    public void upgrade(Long userId, String currentPassword, String rawPassword) {
+        try {
+            String upgraded = passwordEncoder.encode(rawPassword);
+            if (userRepository.replacePassword(userId, currentPassword, upgraded) > 0) {
+                userCacheService.evict(userId);
+                log.debug("Upgraded password hash for user {}", userId);
+            }
+        } catch (ThrottledException e) {
+            log.debug("Skipped password upgrade for user {}, hashing is saturated", userId);
+        } catch (Exception e) {
+            log.warn("Password upgrade failed for user {}: {}", userId, e.getMessage());
+        }
+    }
+}
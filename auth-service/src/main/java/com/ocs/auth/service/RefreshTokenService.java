@@ -0,0 +1,103 @@
+package com.ocs.auth.service;
+
+import com.ocs.auth.exception.InvalidTokenException;
+import com.ocs.auth.model.RefreshTokenFamily;
+import com.ocs.auth.model.User;
+import com.ocs.auth.repository.RefreshTokenFamilyRepository;
+import com.ocs.auth.security.JwtService;
+import com.ocs.auth.security.VerifiedToken;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Rotating refresh tokens. Every refresh retires the presented token and issues a new one
+ * in the same family; replaying a retired token drops the family, logging out every holder.
+ * The token retired last is still honoured for {@code reuse-grace} after its rotation and
+ * gets the family's current token back, so racing refreshes keep the session alive.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class RefreshTokenService {
+
+    private final RefreshTokenFamilyRepository familyRepository;
+    private final JwtService jwtService;
+
+    @Value("${application.security.jwt.refresh-token.purge-batch-size:1000}")
+    private int purgeBatchSize;
+
+    @Value("${application.security.jwt.refresh-token.reuse-grace:PT10S}")
+    private Duration reuseGrace;
+
+    public String issue(User user) {
+        String familyId = UUID.randomUUID().toString();
+        String tokenId = UUID.randomUUID().toString();
+        Instant expiresAt = jwtService.nextRefreshTokenExpiry();
+        familyRepository.insert(familyId, tokenId, user.getId(), expiresAt);
+        return jwtService.generateRefreshToken(user, familyId, tokenId, expiresAt);
+    }
+
+    // The family delete on reuse must be committed even though the caller gets an exception
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public String rotate(VerifiedToken presented, User user) {
+        String familyId = presented.getFamilyId();
+        if (familyId == null) {
+            throw new InvalidTokenException("Invalid/Expired refresh-token");
+        }
+        String tokenId = UUID.randomUUID().toString();
+        Instant expiresAt = jwtService.nextRefreshTokenExpiry();
+        Instant now = Instant.now();
+        int rotated = familyRepository.rotate(familyId, presented.getTokenId(), tokenId, expiresAt, now);
+        if (rotated == 0) {
+            RefreshTokenFamily family = familyRepository.findById(familyId).orElse(null);
+            if (family != null && isWithinReuseGrace(family, presented.getTokenId(), now)) {
+                return jwtService.generateRefreshToken(user, familyId, family.getCurrentTokenId(), family.getExpiresAt());
+            }
+            // Either the family is already gone or a retired token was replayed; either way it must die
+            if (familyRepository.deleteFamily(familyId) > 0) {
+                log.warn("Refresh token reuse detected for user {}, revoking token family", presented.getSubject());
+            }
+            throw new InvalidTokenException("Invalid/Expired refresh-token");
+        }
+        return jwtService.generateRefreshToken(user, familyId, tokenId, expiresAt);
+    }
+
+    private boolean isWithinReuseGrace(RefreshTokenFamily family, String tokenId, Instant now) {
+        return tokenId.equals(family.getPreviousTokenId())
+                && family.getRotatedAt() != null
+                && family.getRotatedAt().plus(reuseGrace).isAfter(now)
+                && family.getExpiresAt().isAfter(now);
+    }
+
+    public void revokeFamily(String familyId) {
+        if (familyId != null) {
+            familyRepository.deleteFamily(familyId);
+        }
+    }
+
+    // Each batch commits on its own so the purge never holds long locks on the table
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Scheduled(fixedDelayString = "${application.security.jwt.refresh-token.purge-interval:PT10M}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = familyRepository.deleteExpiredBatch(now, purgeBatchSize);
+            total += deleted;
+        } while (deleted == purgeBatchSize);
+        if (total > 0) {
+            log.info("Purged {} expired refresh token families", total);
+        }
+    }
+}
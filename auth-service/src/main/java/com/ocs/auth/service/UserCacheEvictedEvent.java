@@ -0,0 +1,12 @@
+package com.ocs.auth.service;
+
+/**
+ * Published when users are evicted from the second-level cache. It is raised inside the
+ * changing transaction; {@link UserCacheInvalidationSync} records it in that transaction and
+ * replays it on the other replicas once committed.
+ *
+ * @param userId  the evicted user, or {@code null} for every user
+ * @param deleted whether the user no longer exists, which also invalidates username lookups
+ */
+public record UserCacheEvictedEvent(Long userId, boolean deleted) {
+}
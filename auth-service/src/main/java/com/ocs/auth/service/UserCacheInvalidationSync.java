@@ -0,0 +1,101 @@
+package com.ocs.auth.service;
+
+import com.ocs.auth.model.UserCacheInvalidation;
+import com.ocs.auth.repository.UserCacheInvalidationRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Carries second-level cache evictions between replicas through the
+ * {@code user_cache_invalidations} table. Each eviction is written in the transaction that
+ * caused it, so peers only see it once the change is committed; every replica polls the
+ * table by id and evicts the same entries locally.
+ */
+@Slf4j
+@Component
+public class UserCacheInvalidationSync {
+
+    // Ids skipped by a poll are re-checked this long before being taken as rolled back
+    private static final Duration PENDING_TIMEOUT = Duration.ofMinutes(1);
+    private static final int MAX_PENDING_IDS = 1000;
+
+    private final UserCacheInvalidationRepository invalidationRepository;
+    private final UserCacheService userCacheService;
+    private final Duration retention;
+
+    // Only touched by the polling thread once initialised
+    private volatile long lastId;
+    private final Map<Long, Instant> pendingIds = new HashMap<>();
+
+    public UserCacheInvalidationSync(
+            UserCacheInvalidationRepository invalidationRepository,
+            UserCacheService userCacheService,
+            @Value("${application.user-cache.time-to-live:PT5M}") Duration timeToLive) {
+        this.invalidationRepository = invalidationRepository;
+        this.userCacheService = userCacheService;
+        // Entries older than the cache TTL have expired everywhere, so their evictions are moot
+        this.retention = timeToLive.plus(PENDING_TIMEOUT);
+    }
+
+    // The cache starts empty, so evictions recorded before startup never matter here
+    @PostConstruct
+    void init() {
+        lastId = invalidationRepository.findMaxId();
+    }
+
+    // Bulk operations evict outside any transaction; fallbackExecution records those too
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void record(UserCacheEvictedEvent event) {
+        invalidationRepository.save(UserCacheInvalidation.builder()
+                .userId(event.userId())
+                .deleted(event.deleted())
+                .createdAt(Instant.now())
+                .build());
+    }
+
+    @Scheduled(fixedDelayString = "${application.user-cache.sync-interval:PT1S}")
+    public void syncFromStore() {
+        Instant now = Instant.now();
+        if (!pendingIds.isEmpty()) {
+            invalidationRepository.findByIdIn(pendingIds.keySet()).forEach(invalidation -> {
+                pendingIds.remove(invalidation.getId());
+                apply(invalidation);
+            });
+            // Ids of rolled-back transactions never appear
+            pendingIds.values().removeIf(firstMissed -> firstMissed.isBefore(now.minus(PENDING_TIMEOUT)));
+        }
+        List<UserCacheInvalidation> invalidations = invalidationRepository.findByIdGreaterThanOrderByIdAsc(lastId);
+        for (UserCacheInvalidation invalidation : invalidations) {
+            // Ids are drawn before commit, so a lower id can become visible after a higher one
+            for (long id = lastId + 1; id < invalidation.getId() && pendingIds.size() < MAX_PENDING_IDS; id++) {
+                pendingIds.put(id, now);
+            }
+            lastId = invalidation.getId();
+            apply(invalidation);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.user-cache.purge-interval:PT15M}")
+    public void purgeExpired() {
+        int purged = invalidationRepository.deleteCreatedBefore(Instant.now().minus(retention));
+        if (purged > 0) {
+            log.info("Purged {} user cache invalidations", purged);
+        }
+    }
+
+    // Our own evictions come back too; evicting again is harmless
+    private void apply(UserCacheInvalidation invalidation) {
+        userCacheService.evictLocally(new UserCacheEvictedEvent(invalidation.getUserId(), invalidation.isDeleted()));
+    }
+}
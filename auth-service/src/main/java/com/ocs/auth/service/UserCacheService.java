@@ -0,0 +1,62 @@
+package com.ocs.auth.service;
+
+import com.ocs.auth.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Evicts users from the second-level cache. Hibernate already updates this replica's cache
+ * on entity writes; the explicit evictions also cover bulk statements and publish a
+ * {@link UserCacheEvictedEvent}, which {@link UserCacheInvalidationSync} records so other
+ * replicas drop their copies within a sync interval of the commit.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserCacheService {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public void evict(Long userId) {
+        publish(new UserCacheEvictedEvent(userId, false));
+    }
+
+    public void evictDeleted(Long userId) {
+        publish(new UserCacheEvictedEvent(userId, true));
+    }
+
+    public void evictAll() {
+        publish(new UserCacheEvictedEvent(null, true));
+    }
+
+    public void evictLocally(UserCacheEvictedEvent event) {
+        if (event.userId() == null) {
+            entityManagerFactory.getCache().evict(User.class);
+        } else {
+            entityManagerFactory.getCache().evict(User.class, event.userId());
+        }
+        // Usernames never change, so username-to-id mappings only go stale when a user is deleted
+        if (event.deleted()) {
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictNaturalIdData(User.class);
+        }
+    }
+
+    private void publish(UserCacheEvictedEvent event) {
+        evictLocally(event);
+        // A concurrent read can put the old row back before we commit, so evict once more after
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictLocally(event);
+                }
+            });
+        }
+        eventPublisher.publishEvent(event);
+    }
+}
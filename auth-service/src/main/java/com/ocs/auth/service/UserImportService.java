@@ -0,0 +1,311 @@
+package com.ocs.auth.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ocs.auth.dto.RegisterRequest;
+import com.ocs.auth.dto.UserImportResult;
+import com.ocs.auth.exception.ThrottledException;
+import com.ocs.auth.model.Role;
+import com.ocs.auth.security.KnownUserFilter;
+import com.ocs.auth.util.CsvLineParser;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk user creation for onboarding. The upload is read line by line and processed in
+ * chunks: passwords are hashed in parallel, each chunk is written with one JDBC batch,
+ * and per-row results are streamed back before the next chunk is read, so memory stays
+ * flat regardless of file size. Rows clashing with existing users are reported as
+ * duplicates instead of failing the import.
+ */
+@Slf4j
+@Service
+public class UserImportService {
+
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private static final String INSERT_SQL = "insert into users "
+            + "(id, username, password, email, first_name, last_name, role, created_at, updated_at) "
+            + "values (nextval('users_id_seq'), ?, ?, ?, ?, ?, ?, ?, ?) on conflict do nothing";
+
+    private static final int MAX_HASH_ATTEMPTS = 10;
+    private static final long HASH_RETRY_BACKOFF_MILLIS = 200;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final AuthService authService;
+    private final KnownUserFilter knownUserFilter;
+    private final int batchSize;
+    private final ExecutorService hashingExecutor;
+
+    public UserImportService(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            PasswordEncoder passwordEncoder,
+            Validator validator,
+            ObjectMapper objectMapper,
+            AuthService authService,
+            KnownUserFilter knownUserFilter,
+            @Value("${application.user-import.batch-size:500}") int batchSize,
+            // Half the cores by default, leaving hashing capacity for interactive logins
+            @Value("${application.user-import.hash-concurrency:#{T(java.lang.Math).max(1, T(java.lang.Runtime).getRuntime().availableProcessors() / 2)}}")
+            int hashConcurrency) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.authService = authService;
+        this.knownUserFilter = knownUserFilter;
+        this.batchSize = batchSize;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.hashingExecutor = Executors.newFixedThreadPool(hashConcurrency, runnable -> {
+            Thread thread = new Thread(runnable, "user-import-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashingExecutor.shutdownNow();
+    }
+
+    /**
+     * Imports users from CSV (with a header row) or NDJSON and writes one NDJSON
+     * {@link UserImportResult} per input row to {@code output}.
+     */
+    public void importUsers(InputStream input, MediaType contentType, OutputStream output) throws IOException {
+        boolean csv = TEXT_CSV.isCompatibleWith(contentType);
+        boolean mayCreateAdmins = authService.getCurrentPrincipal().getRole() == Role.SUPER_ADMIN;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        List<String> header = null;
+        List<Row> chunk = new ArrayList<>(batchSize);
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (csv && header == null) {
+                header = CsvLineParser.parse(line).stream()
+                        .map(column -> column.trim().replace("_", "").toLowerCase(Locale.ROOT))
+                        .toList();
+                continue;
+            }
+            chunk.add(parseRow(lineNumber, line, header, mayCreateAdmins));
+            if (chunk.size() == batchSize) {
+                processChunk(chunk);
+                writeResults(chunk, output);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk);
+            writeResults(chunk, output);
+        }
+    }
+
+    private Row parseRow(long lineNumber, String line, List<String> header, boolean mayCreateAdmins) {
+        Row row = new Row(lineNumber);
+        try {
+            row.request = header != null ? fromCsv(header, CsvLineParser.parse(line))
+                    : objectMapper.readValue(line, RegisterRequest.class);
+        } catch (Exception e) {
+            row.fail(UserImportResult.Status.INVALID, "Unreadable row");
+            return row;
+        }
+
+        String violations = validator.validate(row.request).stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+        if (!violations.isEmpty()) {
+            row.fail(UserImportResult.Status.INVALID, violations);
+        } else if (row.request.getRole() == Role.SUPER_ADMIN) {
+            row.fail(UserImportResult.Status.INVALID, "Cannot create SUPER_ADMIN role");
+        } else if (row.request.getRole() == Role.ADMIN && !mayCreateAdmins) {
+            row.fail(UserImportResult.Status.INVALID, "Only SUPER_ADMIN can create ADMIN users");
+        }
+        return row;
+    }
+
+    private RegisterRequest fromCsv(List<String> header, List<String> values) {
+        RegisterRequest request = new RegisterRequest();
+        for (int i = 0; i < header.size() && i < values.size(); i++) {
+            String value = values.get(i).trim();
+            switch (header.get(i)) {
+                case "username" -> request.setUsername(value);
+                case "password" -> request.setPassword(value);
+                case "email" -> request.setEmail(value);
+                case "firstname" -> request.setFirstName(value);
+                case "lastname" -> request.setLastName(value);
+                case "role" -> request.setRole(value.isEmpty() ? null : Role.valueOf(value.toUpperCase(Locale.ROOT)));
+                default -> {
+                }
+            }
+        }
+        return request;
+    }
+
+    private void processChunk(List<Row> chunk) {
+        List<Row> valid = chunk.stream().filter(row -> row.result == null).toList();
+
+        List<CompletableFuture<String>> hashes = valid.stream()
+                .map(row -> CompletableFuture.supplyAsync(() -> encode(row.request.getPassword()), hashingExecutor))
+                .toList();
+        List<Row> hashed = new ArrayList<>(valid.size());
+        for (int i = 0; i < valid.size(); i++) {
+            Row row = valid.get(i);
+            try {
+                row.encodedPassword = hashes.get(i).join();
+                hashed.add(row);
+            } catch (CompletionException e) {
+                row.fail(UserImportResult.Status.FAILED, "Password hashing failed");
+            }
+            // Drop the plain-text password as soon as it is no longer needed
+            row.request.setPassword(null);
+        }
+        if (hashed.isEmpty()) {
+            return;
+        }
+
+        try {
+            int[][] counts = transactionTemplate.execute(status ->
+                    jdbcTemplate.batchUpdate(INSERT_SQL, hashed, hashed.size(), this::bind));
+            int[] rowCounts = counts[0];
+            for (int i = 0; i < hashed.size(); i++) {
+                complete(hashed.get(i), rowCounts[i]);
+            }
+        } catch (DataAccessException e) {
+            // One bad row aborts the whole batch; retry individually to isolate it
+            log.debug("Batch insert failed, retrying rows one by one: {}", e.getMessage());
+            for (Row row : hashed) {
+                try {
+                    complete(row, jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, row)));
+                } catch (DataAccessException rowFailure) {
+                    row.fail(UserImportResult.Status.FAILED, rowFailure.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    private void complete(Row row, int updateCount) {
+        row.complete(updateCount);
+        // An unconfirmed row may exist; a false positive in the filter only costs a lookup
+        if (row.result.getStatus() != UserImportResult.Status.DUPLICATE) {
+            knownUserFilter.add(row.request.getUsername(), row.request.getEmail());
+        }
+    }
+
+    private void bind(PreparedStatement ps, Row row) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        RegisterRequest request = row.request;
+        ps.setString(1, request.getUsername());
+        ps.setString(2, row.encodedPassword);
+        ps.setString(3, request.getEmail());
+        ps.setString(4, request.getFirstName());
+        ps.setString(5, request.getLastName());
+        ps.setString(6, (request.getRole() != null ? request.getRole() : Role.USER).name());
+        ps.setTimestamp(7, now);
+        ps.setTimestamp(8, now);
+    }
+
+    // Shares the login hashing pool, so back off briefly instead of failing rows while it is saturated
+    private String encode(String rawPassword) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return passwordEncoder.encode(rawPassword);
+            } catch (ThrottledException e) {
+                if (attempt >= MAX_HASH_ATTEMPTS) {
+                    throw e;
+                }
+                try {
+                    Thread.sleep(HASH_RETRY_BACKOFF_MILLIS * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private void writeResults(List<Row> chunk, OutputStream output) throws IOException {
+        for (Row row : chunk) {
+            output.write(objectMapper.writeValueAsBytes(row.result));
+            output.write('\n');
+        }
+        output.flush();
+    }
+
+    private static final class Row {
+        private final long line;
+        private RegisterRequest request;
+        private String encodedPassword;
+        private UserImportResult result;
+
+        private Row(long line) {
+            this.line = line;
+        }
+
+        private void complete(int updateCount) {
+            UserImportResult.UserImportResultBuilder builder = UserImportResult.builder()
+                    .line(line)
+                    .username(request.getUsername());
+            if (updateCount == Statement.SUCCESS_NO_INFO) {
+                // Reported when the driver rewrites batches; with "on conflict do nothing" the row may have been skipped
+                result = builder.status(UserImportResult.Status.UNKNOWN)
+                        .message("Executed without a row count; check whether the user exists")
+                        .build();
+            } else if (updateCount > 0) {
+                result = builder.status(UserImportResult.Status.CREATED).build();
+            } else {
+                result = builder.status(UserImportResult.Status.DUPLICATE)
+                        .message("Username or email already exists")
+                        .build();
+            }
+        }
+
+        private void fail(UserImportResult.Status status, String message) {
+            result = UserImportResult.builder()
+                    .line(line)
+                    .username(request != null ? request.getUsername() : null)
+                    .status(status)
+                    .message(message)
+                    .build();
+        }
+    }
+}
@@ -2,8 +2,11 @@ package com.ocs.auth.service;
 
 import com.ocs.auth.dto.UserResponse;
 import com.ocs.auth.dto.UserUpdateRequest;
+import com.ocs.auth.exception.UserNotFoundException;
 import com.ocs.auth.model.User;
 import com.ocs.auth.repository.UserRepository;
+import com.ocs.auth.security.KnownUserFilter;
+import com.ocs.auth.util.ETags;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -17,10 +20,23 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuthService authService;
+    private final UserCacheService userCacheService;
+    private final KnownUserFilter knownUserFilter;
 
+    // Replica reads; right after the caller's own write ReadYourWritesTracker pins them to the primary
+    @Transactional(readOnly = true)
     public UserResponse getCurrentUserProfile() {
-        User currentUser = authService.getCurrentUser();
-        return convertToUserResponse(currentUser);
+        Long userId = currentUserId();
+        return userRepository.findResponseById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+    }
+
+    @Transactional(readOnly = true)
+    public String getCurrentUserProfileETag() {
+        Long userId = currentUserId();
+        return userRepository.findUpdatedAtById(userId)
+                .map(updatedAt -> ETags.fromVersion(userId, updatedAt))
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
     }
 
     public UserResponse updateUserProfile(UserUpdateRequest request) {
@@ -32,7 +48,8 @@ public class UserService {
         if (request.getLastName() != null) {
             currentUser.setLastName(request.getLastName());
         }
-        if (request.getEmail() != null) {
+        boolean emailChanged = request.getEmail() != null && !request.getEmail().equals(currentUser.getEmail());
+        if (emailChanged) {
             currentUser.setEmail(request.getEmail());
         }
         if (request.getPassword() != null) {
@@ -40,24 +57,25 @@ public class UserService {
         }
         
         currentUser = userRepository.save(currentUser);
-        return convertToUserResponse(currentUser);
+        userCacheService.evict(currentUser.getId());
+        if (emailChanged) {
+            knownUserFilter.addAfterCommit(currentUser.getUsername(), currentUser.getEmail());
+        }
+        return UserResponse.from(currentUser);
     }
 
     public void deleteCurrentUser() {
         User currentUser = authService.getCurrentUser();
         userRepository.delete(currentUser);
+        userCacheService.evictDeleted(currentUser.getId());
     }
 
-    private UserResponse convertToUserResponse(User user) {
-        return UserResponse.builder()
-                .id(user.getId())
-                .username(user.getUsername())
-                .email(user.getEmail())
-                .firstName(user.getFirstName())
-                .lastName(user.getLastName())
-                .role(user.getRole())
-                .createdAt(user.getCreatedAt())
-                .updatedAt(user.getUpdatedAt())
-                .build();
+    // The access token carries the user id, so profile reads go through the primary key
+    private Long currentUserId() {
+        Long userId = authService.getCurrentPrincipal().getUserId();
+        if (userId == null) {
+            throw new UserNotFoundException("No authenticated user found");
+        }
+        return userId;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,42 @@
+package com.ocs.auth.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a single CSV line into fields. Supports double-quoted fields with escaped
+ * quotes ({@code ""}); quoted fields spanning several lines are not supported.
+ */
+public final class CsvLineParser {
+
+    private CsvLineParser() {
+    }
+
+    public static List<String> parse(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
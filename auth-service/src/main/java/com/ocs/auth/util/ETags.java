@@ -0,0 +1,31 @@
+package com.ocs.auth.util;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Strong ETags derived from a row's id and {@code updated_at}, which changes with every
+ * write. The id keeps rows stamped with the same time by one bulk update apart.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String fromVersion(Long id, LocalDateTime updatedAt) {
+        long micros = updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+        return "\"" + Long.toHexString(id) + "-" + Long.toHexString(micros) + "\"";
+    }
+
+    // If-None-Match uses the weak comparison, so W/ prefixes added by intermediaries are ignored
+    public static boolean matches(List<String> ifNoneMatch, String eTag) {
+        for (String candidate : ifNoneMatch) {
+            if (candidate.equals("*") || candidate.equals(eTag)
+                    || (candidate.startsWith("W/") && candidate.substring(2).equals(eTag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
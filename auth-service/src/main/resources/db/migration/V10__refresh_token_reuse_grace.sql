@@ -0,0 +1,3 @@
+-- The token a family replaced last, and when, so a refresh racing the rotation is not taken for a replay
+alter table refresh_token_families add column if not exists previous_token_id varchar(36);
+alter table refresh_token_families add column if not exists rotated_at timestamp(6) with time zone;
@@ -0,0 +1,20 @@
+-- Matches the schema Hibernate generated before migrations were introduced. Existing
+-- databases are baselined at this version, so this only runs on an empty schema.
+create sequence if not exists users_id_seq increment by 50;
+
+create table if not exists users (
+    id          bigint       not null primary key,
+    username    varchar(255) not null,
+    password    varchar(255) not null,
+    email       varchar(255) not null,
+    first_name  varchar(255) not null,
+    last_name   varchar(255) not null,
+    role        varchar(255) not null check (role in ('SUPER_ADMIN', 'ADMIN', 'USER')),
+    created_at  timestamp(6) not null,
+    updated_at  timestamp(6) not null,
+    constraint uk_users_username unique (username),
+    constraint uk_users_email unique (email)
+);
+
+create index if not exists idx_users_role_id on users (role, id);
+create index if not exists idx_users_created_at_id on users (created_at, id);
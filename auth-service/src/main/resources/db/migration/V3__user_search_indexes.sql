@@ -0,0 +1,12 @@
+-- Built concurrently so a large users table stays writable; Flyway runs this script
+-- outside a transaction.
+
+-- Prefix search: lower(col) like 'abc%' is a btree range scan with text_pattern_ops
+create index concurrently if not exists idx_users_username_lower_prefix on users (lower(username) text_pattern_ops);
+create index concurrently if not exists idx_users_email_lower_prefix on users (lower(email) text_pattern_ops);
+
+-- Substring search: lower(col) like '%abc%' uses trigram GIN indexes
+create index concurrently if not exists idx_users_username_trgm on users using gin (lower(username) gin_trgm_ops);
+create index concurrently if not exists idx_users_email_trgm on users using gin (lower(email) gin_trgm_ops);
+create index concurrently if not exists idx_users_first_name_trgm on users using gin (lower(first_name) gin_trgm_ops);
+create index concurrently if not exists idx_users_last_name_trgm on users using gin (lower(last_name) gin_trgm_ops);
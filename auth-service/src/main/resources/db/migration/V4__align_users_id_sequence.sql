@@ -0,0 +1,14 @@
+-- Hibernate pre-allocates 50 ids per sequence call. Schemas created while users.id was an
+-- IDENTITY column still step the sequence by 1; identity sequences must be altered
+-- through the column.
+do $$
+begin
+    if exists (select 1 from information_schema.columns
+               where table_schema = current_schema() and table_name = 'users'
+                 and column_name = 'id' and is_identity = 'YES') then
+        alter table users alter column id set increment by 50;
+    else
+        alter sequence users_id_seq increment by 50;
+    end if;
+end
+$$;
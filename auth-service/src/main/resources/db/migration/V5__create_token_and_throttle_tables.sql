@@ -0,0 +1,29 @@
+-- Tables previously created by Hibernate. "if not exists" keeps this a no-op on databases
+-- baselined with them already in place.
+create table if not exists revoked_tokens (
+    token_id    varchar(36)                 not null primary key,
+    expires_at  timestamp(6) with time zone not null,
+    revoked_at  timestamp(6) with time zone not null
+);
+
+create index if not exists idx_revoked_tokens_revoked_at on revoked_tokens (revoked_at);
+create index if not exists idx_revoked_tokens_expires_at on revoked_tokens (expires_at);
+
+create table if not exists refresh_token_families (
+    family_id         varchar(36)                 not null primary key,
+    current_token_id  varchar(36)                 not null,
+    user_id           bigint                      not null,
+    expires_at        timestamp(6) with time zone not null
+);
+
+create index if not exists idx_refresh_token_families_expires_at on refresh_token_families (expires_at);
+
+create table if not exists login_attempt_windows (
+    counter_key   varchar(320)                not null,
+    window_index  bigint                      not null,
+    attempts      integer                     not null,
+    expires_at    timestamp(6) with time zone not null,
+    primary key (counter_key, window_index)
+);
+
+create index if not exists idx_login_attempt_windows_expires_at on login_attempt_windows (expires_at);
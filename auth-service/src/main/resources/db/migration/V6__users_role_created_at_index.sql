@@ -0,0 +1,4 @@
+-- Listing one role ordered by creation seeks straight to (role, created_at, id) instead of
+-- filtering the created_at index by role. Built concurrently; Flyway runs this script
+-- outside a transaction.
+create index concurrently if not exists idx_users_role_created_at_id on users (role, created_at, id);
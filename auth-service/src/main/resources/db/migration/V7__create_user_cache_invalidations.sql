@@ -0,0 +1,9 @@
+-- One row per second-level cache eviction, polled by every replica so a change made on one
+-- replica drops the stale copies on the others. A null user_id evicts every user.
+create table if not exists user_cache_invalidations (
+    id          bigserial                   not null primary key,
+    user_id     bigint,
+    created_at  timestamp(6) with time zone not null
+);
+
+create index if not exists idx_user_cache_invalidations_created_at on user_cache_invalidations (created_at);
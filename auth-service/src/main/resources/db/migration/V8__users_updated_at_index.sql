@@ -0,0 +1,3 @@
+-- The known-user filter polls users by updated_at to pick up registrations and email changes
+-- made on other replicas. Built concurrently; Flyway runs this script outside a transaction.
+create index concurrently if not exists idx_users_updated_at on users (updated_at);
@@ -0,0 +1,2 @@
+-- Deletions also drop the username-to-id mappings cached on the other replicas
+alter table user_cache_invalidations add column if not exists deleted boolean not null default false;
@@ -0,0 +1,54 @@
+package com.ocs.auth.config;
+
+import com.ocs.auth.service.UserCacheEvictedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesTrackerTests {
+
+    private final ReadYourWritesTracker tracker = new ReadYourWritesTracker(Duration.ofMinutes(1), 100);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void pinsOnlyTheCallerWhoWrote() {
+        authenticateAs("writer");
+        tracker.onUserWritten(new UserCacheEvictedEvent(1L, false));
+        assertThat(tracker.callerWroteRecently()).isTrue();
+
+        authenticateAs("reader");
+        assertThat(tracker.callerWroteRecently()).isFalse();
+    }
+
+    @Test
+    void anonymousCallersAreNeverPinned() {
+        tracker.onUserWritten(new UserCacheEvictedEvent(null, true));
+
+        assertThat(tracker.callerWroteRecently()).isFalse();
+    }
+
+    @Test
+    void pinExpiresAfterTheWindow() throws InterruptedException {
+        ReadYourWritesTracker shortWindow = new ReadYourWritesTracker(Duration.ofMillis(50), 100);
+        authenticateAs("writer");
+        shortWindow.onUserWritten(new UserCacheEvictedEvent(1L, false));
+
+        Thread.sleep(100);
+
+        assertThat(shortWindow.callerWroteRecently()).isFalse();
+    }
+
+    private static void authenticateAs(String username) {
+        TestingAuthenticationToken authentication = new TestingAuthenticationToken(username, null, "ROLE_USER");
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+}
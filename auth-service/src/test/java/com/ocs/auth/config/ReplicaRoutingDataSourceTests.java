@@ -0,0 +1,138 @@
+package com.ocs.auth.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes through the same proxy chain as {@link DataSourceConfig} against two embedded
+ * databases, each holding a marker row that names it.
+ */
+class ReplicaRoutingDataSourceTests {
+
+    private final DataSource primary = database("primary");
+    private final DataSource replica = database("replica");
+
+    private boolean pinned;
+    private ReplicaRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        for (DataSource dataSource : new DataSource[] {primary, replica}) {
+            new JdbcTemplate(dataSource).execute("shutdown");
+        }
+    }
+
+    @Test
+    void readOnlyTransactionsUseHealthyReplica() {
+        route("", Duration.ofSeconds(1));
+        routingDataSource.checkReplicas();
+
+        assertThat(databaseUsedBy(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void readWriteTransactionsUsePrimary() {
+        route("", Duration.ofSeconds(1));
+        routingDataSource.checkReplicas();
+
+        assertThat(databaseUsedBy(false)).isEqualTo("primary");
+    }
+
+    @Test
+    void readsOutsideTransactionsUsePrimary() {
+        route("", Duration.ofSeconds(1));
+        routingDataSource.checkReplicas();
+
+        assertThat(jdbcTemplate.queryForObject("select name from marker", String.class)).isEqualTo("primary");
+    }
+
+    @Test
+    void readsOfARecentWriterUsePrimary() {
+        route("", Duration.ofSeconds(1));
+        routingDataSource.checkReplicas();
+        pinned = true;
+
+        assertThat(databaseUsedBy(true)).isEqualTo("primary");
+    }
+
+    @Test
+    void readsUsePrimaryUntilReplicaIsChecked() {
+        route("", Duration.ofSeconds(1));
+
+        assertThat(databaseUsedBy(true)).isEqualTo("primary");
+    }
+
+    @Test
+    void laggingReplicaIsSkipped() {
+        route("select 5", Duration.ofSeconds(1));
+        routingDataSource.checkReplicas();
+
+        assertThat(databaseUsedBy(true)).isEqualTo("primary");
+    }
+
+    @Test
+    void replicaIsUsedAgainOnceCaughtUp() {
+        route("select lag from replication_lag", Duration.ofSeconds(1));
+        new JdbcTemplate(replica).execute("create table replication_lag (lag double precision)");
+        new JdbcTemplate(replica).update("insert into replication_lag values (5)");
+        routingDataSource.checkReplicas();
+        assertThat(databaseUsedBy(true)).isEqualTo("primary");
+
+        new JdbcTemplate(replica).update("update replication_lag set lag = 0.5");
+        routingDataSource.checkReplicas();
+
+        assertThat(databaseUsedBy(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void unreachableReplicaIsSkipped() {
+        route(new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/missing"), "", Duration.ofSeconds(1));
+        routingDataSource.checkReplicas();
+
+        assertThat(databaseUsedBy(true)).isEqualTo("primary");
+    }
+
+    private void route(String lagQuery, Duration maxLag) {
+        route(replica, lagQuery, maxLag);
+    }
+
+    private void route(DataSource replicaDataSource, String lagQuery, Duration maxLag) {
+        routingDataSource = new ReplicaRoutingDataSource(
+                primary, Map.of("replica-1", replicaDataSource), lagQuery, maxLag, () -> pinned,
+                new SimpleMeterRegistry());
+        routingDataSource.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    private String databaseUsedBy(boolean readOnly) {
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status ->
+                jdbcTemplate.queryForObject("select name from marker", String.class));
+    }
+
+    private static DataSource database(String name) {
+        String url = "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        DataSource dataSource = new DriverManagerDataSource(url);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table marker (name varchar(16))");
+        jdbcTemplate.update("insert into marker values (?)", name);
+        return dataSource;
+    }
+}
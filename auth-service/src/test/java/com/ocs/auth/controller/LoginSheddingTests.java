@@ -0,0 +1,48 @@
+package com.ocs.auth.controller;
+
+import com.ocs.auth.exception.HashingCapacityExceededException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A login shed by the saturated hashing pool reaches the client as 503 with Retry-After,
+ * not as a failed login. Saturation itself is covered by OffloadingPasswordEncoderTests.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LoginSheddingTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @SpyBean
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void loginShedByTheHashingPoolIsServiceUnavailable() throws Exception {
+        doThrow(new HashingCapacityExceededException("Server is busy, please retry later", 2))
+                .when(passwordEncoder).matches(any(), anyString());
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"shed\",\"password\":\"password\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"));
+    }
+}
@@ -0,0 +1,97 @@
+package com.ocs.auth.security;
+
+import com.ocs.auth.exception.HashingCapacityExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OffloadingPasswordEncoderTests {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final AtomicInteger hashed = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final OffloadingPasswordEncoder encoder = new OffloadingPasswordEncoder(
+            new BlockingEncoder(), 1, 1, Duration.ofSeconds(3), meterRegistry);
+
+    @AfterEach
+    void releaseAndShutdown() {
+        release.countDown();
+        encoder.shutdown();
+    }
+
+    @Test
+    void saturatedPoolIsShedWithRetryAfter() throws Exception {
+        CompletableFuture.runAsync(() -> encoder.matches("running", "hash"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture.runAsync(() -> encoder.matches("queued", "hash"));
+        awaitQueueDepth(1);
+
+        assertThatThrownBy(() -> encoder.matches("shed", "hash"))
+                .isInstanceOfSatisfying(HashingCapacityExceededException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(3));
+        assertThat(meterRegistry.counter("auth.password.hash.rejected").count()).isEqualTo(1);
+    }
+
+    @Test
+    void timedOutTaskGivesUpItsQueueSlotAndRunningHashFinishes() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        OffloadingPasswordEncoder impatient = new OffloadingPasswordEncoder(
+                new BlockingEncoder(), 1, 1, Duration.ofMillis(100), registry);
+        try {
+            CompletableFuture<Void> running = CompletableFuture.runAsync(() -> impatient.matches("running", "hash"));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> impatient.matches("queued", "hash"))
+                    .isInstanceOf(HashingCapacityExceededException.class);
+            assertThat(registry.get("auth.password.hash.queue.depth").gauge().value()).isZero();
+
+            release.countDown();
+            assertThat(running).failsWithin(5, TimeUnit.SECONDS);
+            assertThat(impatient.matches("after release", "hash")).isTrue();
+            // The running hash outlived its caller; the queued one never ran
+            assertThat(hashed.get()).isEqualTo(2);
+        } finally {
+            impatient.shutdown();
+        }
+    }
+
+    private void awaitQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("auth.password.hash.queue.depth").gauge().value() < depth) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private class BlockingEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            hashed.incrementAndGet();
+            return true;
+        }
+    }
+}
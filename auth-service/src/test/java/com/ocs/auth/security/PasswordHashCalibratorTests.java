@@ -0,0 +1,58 @@
+package com.ocs.auth.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class PasswordHashCalibratorTests {
+
+    private static final String PASSWORD = "benchmark-Password-1";
+    private static final int SAMPLES = 5;
+
+    @Test
+    void neverCalibratesBelowTheMinimumCost() {
+        assertThat(PasswordHashCalibrator.calibrate(PasswordHashAlgorithm.BCRYPT, Duration.ZERO))
+                .isEqualTo(PasswordHashAlgorithm.BCRYPT.getMinimumCost());
+        assertThat(PasswordHashCalibrator.calibrate(PasswordHashAlgorithm.ARGON2, Duration.ZERO))
+                .isEqualTo(PasswordHashAlgorithm.ARGON2.getMinimumCost());
+    }
+
+    @Test
+    void calibratedCostHashesWithinTheTarget() {
+        Duration target = Duration.ofMillis(150);
+        int cost = PasswordHashCalibrator.calibrate(PasswordHashAlgorithm.BCRYPT, target);
+
+        // The minimum is kept even on hardware too slow to meet the target
+        if (cost > PasswordHashAlgorithm.BCRYPT.getMinimumCost()) {
+            // Timing noise gets some slack; a cost one step too high would double the time
+            assertThat(nanosPerHash(PasswordHashAlgorithm.BCRYPT.encoder(cost))).isLessThan(target.toNanos() * 3 / 2);
+        }
+        assertThat(nanosPerHash(PasswordHashAlgorithm.BCRYPT.encoder(cost + 1))).isGreaterThan(target.toNanos() / 2);
+    }
+
+    @Test
+    void hashingThroughputPerAlgorithmAndCost() {
+        for (PasswordHashAlgorithm algorithm : PasswordHashAlgorithm.values()) {
+            for (int cost = algorithm.getMinimumCost(); cost < algorithm.getMinimumCost() + 3; cost++) {
+                long nanos = nanosPerHash(algorithm.encoder(cost));
+                log.info("{} cost {}: {} ms per hash, {} hashes/s per core", algorithm.getId(), cost,
+                        String.format("%.1f", nanos / 1_000_000d), String.format("%.1f", 1_000_000_000d / nanos));
+                assertThat(nanos).isPositive();
+            }
+        }
+    }
+
+    private static long nanosPerHash(PasswordEncoder encoder) {
+        String hash = encoder.encode(PASSWORD);
+        long start = System.nanoTime();
+        for (int i = 0; i < SAMPLES; i++) {
+            encoder.matches(PASSWORD, hash);
+        }
+        return (System.nanoTime() - start) / SAMPLES;
+    }
+}
@@ -0,0 +1,83 @@
+package com.ocs.auth.security;
+
+import com.ocs.auth.model.Role;
+import com.ocs.auth.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.Jwts;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Per-request verification cost before and after the single-parse engine. Before, the
+ * filter built a parser and verified the cookie once per extracted claim, four times a
+ * request; now a request verifies once, and a cookie seen before is served from the
+ * verified-token cache.
+ */
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+class TokenVerificationBenchmarkTests {
+
+    private static final int WARMUP_REQUESTS = 500;
+    private static final int MEASURED_REQUESTS = 2_000;
+    private static final int VERIFICATIONS_PER_REQUEST_BEFORE = 4;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private JwtKeyRing keyRing;
+
+    @Test
+    void singleParseVerificationIsCheaperPerRequest() {
+        User user = User.builder().id(1L).username("benchmark").role(Role.USER).build();
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < WARMUP_REQUESTS + MEASURED_REQUESTS; i++) {
+            tokens.add(jwtService.generateAccessToken(user));
+        }
+
+        double before = nanosPerRequest(tokens, token -> {
+            for (int i = 0; i < VERIFICATIONS_PER_REQUEST_BEFORE; i++) {
+                parseWithFreshParser(token);
+            }
+        });
+        // Every request brings a token not seen before, so each one is parsed once
+        double afterFirstSight = nanosPerRequest(tokens, token -> jwtService.verify(token, TokenType.ACCESS));
+        // The same cookie on every request, as with a logged-in browser
+        String cookie = tokens.get(0);
+        double afterRepeat = nanosPerRequest(tokens, token -> jwtService.verify(cookie, TokenType.ACCESS));
+
+        log.info("Token verification per request: before {} us, after (new token) {} us, after (repeat cookie) {} us",
+                micros(before), micros(afterFirstSight), micros(afterRepeat));
+        assertThat(afterFirstSight).isLessThan(before);
+        assertThat(afterRepeat).isLessThan(afterFirstSight);
+    }
+
+    private Jws<Claims> parseWithFreshParser(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(keyRing.activeKey().getPublicKey())
+                .build()
+                .parseClaimsJws(token);
+    }
+
+    private static double nanosPerRequest(List<String> tokens, Consumer<String> request) {
+        tokens.subList(0, WARMUP_REQUESTS).forEach(request);
+        long start = System.nanoTime();
+        tokens.subList(WARMUP_REQUESTS, tokens.size()).forEach(request);
+        return (System.nanoTime() - start) / (double) MEASURED_REQUESTS;
+    }
+
+    private static String micros(double nanos) {
+        return String.format("%.1f", nanos / 1_000);
+    }
+}
@@ -0,0 +1,138 @@
+package com.ocs.auth.service;
+
+import com.ocs.auth.dto.BulkOperationResponse;
+import com.ocs.auth.dto.BulkUserRequest;
+import com.ocs.auth.model.Role;
+import com.ocs.auth.model.User;
+import com.ocs.auth.repository.UserRepository;
+import com.ocs.auth.support.SqlCapture;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk role changes and deletes run as one set-based statement per chunk of 1000 ids,
+ * whether the users are picked by id or by filter, and never touch SUPER_ADMIN.
+ */
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+class AdminBulkOperationTests {
+
+    private static final int USERS = 2_500;
+    private static final int CHUNKS = 3;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void roleUpdateByIdsIsOneUpdatePerChunkAndSkipsSuperAdmin() {
+        List<Long> ids = createUsers("bulk-role", USERS);
+        User superAdmin = createSuperAdmin("bulk-role-super");
+        List<Long> selection = new ArrayList<>(ids);
+        selection.add(superAdmin.getId());
+
+        SqlCapture.start();
+        BulkOperationResponse response = adminService.updateUsersRole(BulkUserRequest.builder().ids(selection).build(), "ADMIN");
+        List<String> statements = SqlCapture.stop();
+
+        assertThat(response.getAffected()).isEqualTo(USERS);
+        assertThat(SqlCapture.updatesOf(statements, "users")).isEqualTo(CHUNKS);
+        assertThat(SqlCapture.selectsFrom(statements, "users")).isZero();
+        assertThat(userRepository.findById(ids.get(0)).orElseThrow().getRole()).isEqualTo(Role.ADMIN);
+        assertThat(userRepository.findById(superAdmin.getId()).orElseThrow().getRole()).isEqualTo(Role.SUPER_ADMIN);
+    }
+
+    @Test
+    void deleteByIdsIsOneDeletePerChunkAndSkipsSuperAdmin() {
+        List<Long> ids = createUsers("bulk-delete", USERS);
+        User superAdmin = createSuperAdmin("bulk-delete-super");
+        List<Long> selection = new ArrayList<>(ids);
+        selection.add(superAdmin.getId());
+
+        SqlCapture.start();
+        BulkOperationResponse response = adminService.deleteUsers(BulkUserRequest.builder().ids(selection).build());
+        List<String> statements = SqlCapture.stop();
+
+        assertThat(response.getAffected()).isEqualTo(USERS);
+        assertThat(SqlCapture.deletesFrom(statements, "users")).isEqualTo(CHUNKS);
+        assertThat(userRepository.findAllById(ids)).isEmpty();
+        assertThat(userRepository.findById(superAdmin.getId())).isPresent();
+    }
+
+    @Test
+    void deleteByFilterIsOneDeletePerChunkAndSkipsSuperAdmin() {
+        // Leaves out users of other tests, which were all created well before this
+        LocalDateTime createdAfter = LocalDateTime.now().minus(1, ChronoUnit.MILLIS);
+        List<Long> ids = createUsers("bulk-filter", USERS);
+        User superAdmin = createSuperAdmin("bulk-filter-super");
+
+        SqlCapture.start();
+        BulkOperationResponse response = adminService.deleteUsers(
+                BulkUserRequest.builder().createdAfter(createdAfter).build());
+        List<String> statements = SqlCapture.stop();
+
+        assertThat(response.getAffected()).isEqualTo(USERS);
+        assertThat(SqlCapture.deletesFrom(statements, "users")).isEqualTo(CHUNKS);
+        assertThat(userRepository.findAllById(ids)).isEmpty();
+        assertThat(userRepository.findById(superAdmin.getId())).isPresent();
+    }
+
+    @Test
+    void bulkRoleUpdateThroughputAgainstPerRowUpdates() {
+        int users = 500;
+        List<Long> perRow = createUsers("per-row", users);
+        List<Long> bulk = createUsers("set-based", users);
+
+        long start = System.nanoTime();
+        perRow.forEach(id -> adminService.updateUserRole(id, "ADMIN"));
+        long perRowNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        adminService.updateUsersRole(BulkUserRequest.builder().ids(bulk).build(), "ADMIN");
+        long bulkNanos = System.nanoTime() - start;
+
+        log.info("Role update of {} users: per row {} ms ({} users/s), set-based {} ms ({} users/s)", users,
+                perRowNanos / 1_000_000, users * 1_000_000_000L / perRowNanos,
+                bulkNanos / 1_000_000, users * 1_000_000_000L / bulkNanos);
+        assertThat(bulkNanos).isLessThan(perRowNanos);
+    }
+
+    private List<Long> createUsers(String prefix, int count) {
+        List<User> users = IntStream.range(0, count)
+                .mapToObj(i -> User.builder()
+                        .username(prefix + "-" + i)
+                        .email(prefix + "-" + i + "@example.com")
+                        .password("{noop}unused")
+                        .firstName("Bulk")
+                        .lastName("Test")
+                        .role(Role.USER)
+                        .build())
+                .toList();
+        return userRepository.saveAll(users).stream().map(User::getId).toList();
+    }
+
+    private User createSuperAdmin(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("{noop}unused")
+                .firstName("Bulk")
+                .lastName("Test")
+                .role(Role.SUPER_ADMIN)
+                .build());
+    }
+}
@@ -0,0 +1,53 @@
+package com.ocs.auth.service;
+
+import com.ocs.auth.dto.LoginRequest;
+import com.ocs.auth.dto.RegisterRequest;
+import com.ocs.auth.model.User;
+import com.ocs.auth.support.SqlCapture;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AuthServiceLoginQueryTests {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void loginLoadsTheUserWithOneSelect() {
+        RegisterRequest registration = new RegisterRequest();
+        registration.setUsername("query-count");
+        registration.setPassword("password");
+        registration.setEmail("query-count@example.com");
+        registration.setFirstName("Query");
+        registration.setLastName("Count");
+        authService.register(registration);
+
+        LoginRequest login = new LoginRequest();
+        login.setUsername("query-count");
+        login.setPassword("password");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        SqlCapture.start();
+        authService.login(login, "127.0.0.1");
+        List<String> statements = SqlCapture.stop();
+
+        assertThat(SqlCapture.selectsFrom(statements, "users")).isEqualTo(1);
+        assertThat(statements).filteredOn(sql -> sql.toLowerCase().startsWith("select")).hasSize(1);
+        assertThat(statistics.getEntityStatistics(User.class.getName()).getLoadCount()).isEqualTo(1);
+    }
+}
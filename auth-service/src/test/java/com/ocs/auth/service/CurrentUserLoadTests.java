@@ -0,0 +1,157 @@
+package com.ocs.auth.service;
+
+import com.ocs.auth.dto.RegisterRequest;
+import com.ocs.auth.model.Role;
+import com.ocs.auth.model.User;
+import com.ocs.auth.repository.UserRepository;
+import com.ocs.auth.security.TokenPrincipal;
+import com.ocs.auth.support.SqlCapture;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * However many services ask for the current user during a request, its row is loaded at
+ * most once, and role checks answer from the token claims without loading it at all.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CurrentUserLoadTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void updateProfileLoadsTheUserOnce() throws Exception {
+        Authentication authentication = register("load-update");
+        Statistics statistics = clearedStatistics();
+
+        SqlCapture.start();
+        mockMvc.perform(put("/api/user/profile")
+                        .with(authentication(authentication))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Changed\",\"email\":\"load-update-changed@example.com\"}"))
+                .andExpect(status().isOk());
+        List<String> statements = SqlCapture.stop();
+
+        assertThat(SqlCapture.selectsFrom(statements, "users")).isEqualTo(1);
+        assertThat(userLoads(statistics)).isEqualTo(1);
+    }
+
+    @Test
+    void deleteCurrentUserLoadsTheUserOnce() throws Exception {
+        Authentication authentication = register("load-delete");
+        Statistics statistics = clearedStatistics();
+
+        SqlCapture.start();
+        mockMvc.perform(delete("/api/user/profile").with(authentication(authentication)))
+                .andExpect(status().isNoContent());
+        List<String> statements = SqlCapture.stop();
+
+        assertThat(SqlCapture.selectsFrom(statements, "users")).isEqualTo(1);
+        assertThat(userLoads(statistics)).isEqualTo(1);
+        assertThat(userRepository.existsByUsername("load-delete")).isFalse();
+    }
+
+    @Test
+    void currentUserIsMemoizedWithinARequest() {
+        SecurityContextHolder.getContext().setAuthentication(register("load-repeat"));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        Statistics statistics = clearedStatistics();
+
+        SqlCapture.start();
+        User first = authService.getCurrentUser();
+        User second = authService.getCurrentUser();
+        List<String> statements = SqlCapture.stop();
+
+        assertThat(second).isSameAs(first);
+        assertThat(SqlCapture.selectsFrom(statements, "users")).isEqualTo(1);
+        assertThat(userLoads(statistics)).isEqualTo(1);
+    }
+
+    @Test
+    void roleChecksDoNotLoadTheUser() {
+        SecurityContextHolder.getContext().setAuthentication(register("load-roles"));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        Statistics statistics = clearedStatistics();
+
+        SqlCapture.start();
+        boolean isUser = authService.hasRole("ROLE_USER");
+        boolean isAdmin = authService.hasRole("ROLE_ADMIN");
+        boolean isAnyStaff = authService.hasAnyRole("ROLE_ADMIN", "ROLE_SUPER_ADMIN");
+        boolean isAnyKnown = authService.hasAnyRole("ROLE_ADMIN", "ROLE_USER");
+        List<String> statements = SqlCapture.stop();
+
+        assertThat(isUser).isTrue();
+        assertThat(isAdmin).isFalse();
+        assertThat(isAnyStaff).isFalse();
+        assertThat(isAnyKnown).isTrue();
+        assertThat(SqlCapture.selectsFrom(statements, "users")).isZero();
+        assertThat(userLoads(statistics)).isZero();
+    }
+
+    // Mirrors what JwtAuthenticationFilter installs in stateless mode
+    private Authentication register(String username) {
+        RegisterRequest request = new RegisterRequest();
+        request.setUsername(username);
+        request.setPassword("password");
+        request.setEmail(username + "@example.com");
+        request.setFirstName("Load");
+        request.setLastName("Test");
+        authService.register(request);
+        Long userId = userRepository.findByUsername(username).orElseThrow().getId();
+        TokenPrincipal principal = new TokenPrincipal(username, Role.USER, userId);
+        return new UsernamePasswordAuthenticationToken(principal, null, Role.USER.getAuthorities());
+    }
+
+    // Registration leaves the user in the second-level cache; start each measurement cold
+    private Statistics clearedStatistics() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private static long userLoads(Statistics statistics) {
+        return statistics.getEntityStatistics(User.class.getName()).getLoadCount();
+    }
+}
@@ -0,0 +1,102 @@
+package com.ocs.auth.service;
+
+import com.ocs.auth.dto.LoginRequest;
+import com.ocs.auth.dto.RegisterRequest;
+import com.ocs.auth.model.User;
+import com.ocs.auth.repository.UserRepository;
+import com.ocs.auth.security.PasswordHashAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A login against a hash from another algorithm or a lower cost re-hashes the password
+ * with the configured one in the background, and the old password keeps working throughout.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PasswordRehashOnLoginTests {
+
+    private static final String PASSWORD = "password";
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCacheService userCacheService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void outdatedHashIsUpgradedAfterLogin() throws Exception {
+        User user = register("rehash-argon2");
+        String outdated = "{argon2}" + PasswordHashAlgorithm.ARGON2.encoder(PasswordHashAlgorithm.ARGON2.getMinimumCost())
+                .encode(PASSWORD);
+        storePassword(user, outdated);
+        assertThat(passwordEncoder.upgradeEncoding(outdated)).isTrue();
+
+        authService.login(login("rehash-argon2"), "127.0.0.1");
+
+        String upgraded = awaitPasswordChange("rehash-argon2", outdated);
+        assertThat(upgraded).startsWith("{bcrypt}");
+        assertThat(passwordEncoder.upgradeEncoding(upgraded)).isFalse();
+        assertThat(passwordEncoder.matches(PASSWORD, upgraded)).isTrue();
+        authService.login(login("rehash-argon2"), "127.0.0.1");
+    }
+
+    @Test
+    void currentHashIsLeftAlone() throws Exception {
+        register("rehash-current");
+        String current = userRepository.findByUsername("rehash-current").orElseThrow().getPassword();
+
+        authService.login(login("rehash-current"), "127.0.0.1");
+        TimeUnit.MILLISECONDS.sleep(200);
+
+        assertThat(userRepository.findByUsername("rehash-current").orElseThrow().getPassword()).isEqualTo(current);
+    }
+
+    private User register(String username) {
+        RegisterRequest registration = new RegisterRequest();
+        registration.setUsername(username);
+        registration.setPassword(PASSWORD);
+        registration.setEmail(username + "@example.com");
+        registration.setFirstName("Rehash");
+        registration.setLastName("Test");
+        authService.register(registration);
+        return userRepository.findByUsername(username).orElseThrow();
+    }
+
+    private void storePassword(User user, String encoded) {
+        assertThat(userRepository.replacePassword(user.getId(), user.getPassword(), encoded)).isEqualTo(1);
+        userCacheService.evict(user.getId());
+    }
+
+    private LoginRequest login(String username) {
+        LoginRequest login = new LoginRequest();
+        login.setUsername(username);
+        login.setPassword(PASSWORD);
+        return login;
+    }
+
+    private String awaitPasswordChange(String username, String previous) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            String password = userRepository.findByUsername(username).orElseThrow().getPassword();
+            if (!password.equals(previous)) {
+                return password;
+            }
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        throw new AssertionError("Password of " + username + " was not re-hashed");
+    }
+}
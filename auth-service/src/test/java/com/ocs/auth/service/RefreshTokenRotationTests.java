@@ -0,0 +1,59 @@
+package com.ocs.auth.service;
+
+import com.ocs.auth.exception.InvalidTokenException;
+import com.ocs.auth.model.Role;
+import com.ocs.auth.model.User;
+import com.ocs.auth.repository.RefreshTokenFamilyRepository;
+import com.ocs.auth.security.JwtService;
+import com.ocs.auth.security.TokenType;
+import com.ocs.auth.security.VerifiedToken;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RefreshTokenRotationTests {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenFamilyRepository familyRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private final User user = User.builder().id(42L).username("rotation").role(Role.USER).build();
+
+    @Test
+    void racingRefreshWithTheJustRetiredTokenGetsTheCurrentToken() {
+        VerifiedToken first = verify(refreshTokenService.issue(user));
+
+        VerifiedToken second = verify(refreshTokenService.rotate(first, user));
+        VerifiedToken racing = verify(refreshTokenService.rotate(first, user));
+
+        assertThat(racing.getFamilyId()).isEqualTo(first.getFamilyId());
+        assertThat(racing.getTokenId()).isEqualTo(second.getTokenId());
+        assertThat(familyRepository.findById(first.getFamilyId())).isPresent();
+    }
+
+    @Test
+    void replayingAnOlderTokenRevokesTheFamily() {
+        VerifiedToken first = verify(refreshTokenService.issue(user));
+        VerifiedToken second = verify(refreshTokenService.rotate(first, user));
+        refreshTokenService.rotate(second, user);
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(first, user))
+                .isInstanceOf(InvalidTokenException.class);
+        assertThat(familyRepository.findById(first.getFamilyId())).isEmpty();
+    }
+
+    private VerifiedToken verify(String token) {
+        return jwtService.verify(token, TokenType.REFRESH);
+    }
+}
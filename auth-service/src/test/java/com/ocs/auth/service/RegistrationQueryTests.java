@@ -0,0 +1,109 @@
+package com.ocs.auth.service;
+
+import com.ocs.auth.dto.RegisterRequest;
+import com.ocs.auth.enums.ResponseKeyEnum;
+import com.ocs.auth.exception.UserAlreadyExistsException;
+import com.ocs.auth.support.SqlCapture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Registration is one INSERT guarded by the unique constraints; clashes, including ones
+ * between concurrent registrations, come back as {@link UserAlreadyExistsException} naming
+ * the field that clashed.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RegistrationQueryTests {
+
+    @Autowired
+    private AuthService authService;
+
+    @Test
+    void registrationIsASingleInsert() {
+        SqlCapture.start();
+        authService.register(registration("single-insert", "single-insert@example.com"));
+        List<String> statements = SqlCapture.stop();
+
+        assertThat(SqlCapture.insertsInto(statements, "users")).isEqualTo(1);
+        assertThat(SqlCapture.selectsFrom(statements, "users")).isZero();
+    }
+
+    @Test
+    void duplicateUsernameIsReportedOnTheUsername() {
+        authService.register(registration("taken-name", "taken-name@example.com"));
+
+        assertThatThrownBy(() -> authService.register(registration("taken-name", "other-name@example.com")))
+                .isInstanceOfSatisfying(UserAlreadyExistsException.class, e -> {
+                    assertThat(e.getMessage()).isEqualTo("Username already exists");
+                    assertThat(e.getDetails()).containsEntry(ResponseKeyEnum.USERNAME.getValue(), "taken-name");
+                });
+    }
+
+    @Test
+    void duplicateEmailIsReportedOnTheEmail() {
+        authService.register(registration("taken-email", "taken-email@example.com"));
+
+        assertThatThrownBy(() -> authService.register(registration("other-email", "taken-email@example.com")))
+                .isInstanceOfSatisfying(UserAlreadyExistsException.class, e -> {
+                    assertThat(e.getMessage()).isEqualTo("Email already in use");
+                    assertThat(e.getDetails()).containsEntry(ResponseKeyEnum.EMAIL.getValue(), "taken-email@example.com");
+                });
+    }
+
+    @Test
+    void concurrentRegistrationsOfOneUsernameLetExactlyOneThrough() throws Exception {
+        int contenders = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(contenders);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < contenders; i++) {
+                String email = "race-" + i + "@example.com";
+                results.add(executor.submit((Callable<Object>) () -> {
+                    start.await();
+                    return authService.register(registration("race", email));
+                }));
+            }
+            start.countDown();
+
+            int registered = 0;
+            for (Future<?> result : results) {
+                try {
+                    result.get();
+                    registered++;
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(UserAlreadyExistsException.class)
+                            .hasMessage("Username already exists");
+                }
+            }
+            assertThat(registered).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static RegisterRequest registration(String username, String email) {
+        RegisterRequest registration = new RegisterRequest();
+        registration.setUsername(username);
+        registration.setPassword("password");
+        registration.setEmail(email);
+        registration.setFirstName("Registration");
+        registration.setLastName("Test");
+        return registration;
+    }
+}
@@ -0,0 +1,63 @@
+package com.ocs.auth.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Records the SQL Hibernate prepares on the calling thread between {@link #start()} and
+ * {@link #stop()}, so background jobs running on other threads do not skew the counts.
+ */
+public class SqlCapture implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+    public static void start() {
+        STATEMENTS.set(new ArrayList<>());
+    }
+
+    public static List<String> stop() {
+        List<String> statements = STATEMENTS.get();
+        STATEMENTS.remove();
+        return statements != null ? statements : List.of();
+    }
+
+    public static long selectsFrom(List<String> statements, String table) {
+        return statements.stream()
+                .map(sql -> sql.toLowerCase(Locale.ROOT))
+                .filter(sql -> sql.startsWith("select") && sql.matches("(?s).*\\bfrom " + table + "\\b.*"))
+                .count();
+    }
+
+    public static long insertsInto(List<String> statements, String table) {
+        return statements.stream()
+                .map(sql -> sql.toLowerCase(Locale.ROOT))
+                .filter(sql -> sql.matches("(?s)insert into " + table + "\\b.*"))
+                .count();
+    }
+
+    public static long updatesOf(List<String> statements, String table) {
+        return statements.stream()
+                .map(sql -> sql.toLowerCase(Locale.ROOT))
+                .filter(sql -> sql.matches("(?s)update " + table + "\\b.*"))
+                .count();
+    }
+
+    public static long deletesFrom(List<String> statements, String table) {
+        return statements.stream()
+                .map(sql -> sql.toLowerCase(Locale.ROOT))
+                .filter(sql -> sql.matches("(?s)delete from " + table + "\\b.*"))
+                .count();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = STATEMENTS.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+}